@@ -27,6 +27,9 @@ public class Main {
                 """;
 
         System.out.println(message);
+
+        // Dasselbe Template millionenfach rendern, ohne jedes Mal neu zu allokieren:
+        // siehe TextTemplate / TextTemplateBenchmark
     }
 
 
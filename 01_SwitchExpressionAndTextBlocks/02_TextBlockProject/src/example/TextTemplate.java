@@ -0,0 +1,363 @@
+package example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Vorkompiliertes Template für Textblöcke mit benannten Platzhaltern {{name}}.
+ *
+ * STR."..." (siehe Main) und String.formatted(...) arbeiten bei JEDEM Aufruf:
+ * Ergebnis-String, Zwischenpuffer, ggf. Parsen des Formats. Hier wird der Textblock
+ * EINMAL zerlegt:
+ *
+ *     "<p>Hallo {{name}}!</p>"  ->  Literal "<p>Hallo "  Slot name  Literal "!</p>"
+ *
+ * Rendern:
+ *  - in einen vom Aufrufer wiederverwendeten StringBuilder
+ *  - oder als UTF-8 direkt in einen wiederverwendeten ByteBuffer; die Literale liegen
+ *    dafür schon kodiert als byte[] vor, die Werte werden beim Escapen in einem
+ *    Durchgang kodiert (kein CharsetEncoder, kein Zwischen-String).
+ *    Heap-Puffer mit genug Platz werden direkt über array() beschrieben.
+ *  - Werte: CharSequence oder long (Zahlen ohne Long.toString)
+ *  - Escaping pro Template: HTML (& < > " ') oder NONE
+ *
+ * Die Werte stehen in einem Values-Objekt, das pro Thread wiederverwendet werden kann.
+ *
+ * Vorteile:
+ *  - im eingeschwungenen Zustand keine Allokation pro Rendern
+ *  - Platzhalter-Namen werden einmal aufgelöst (slot(name) -> int)
+ * Nachteile:
+ *  - keine Logik im Template (Schleifen, Bedingungen)
+ *  - ein zu kleiner ByteBuffer -> BufferOverflowException, der Aufrufer muss vergrößern
+ */
+public final class TextTemplate {
+
+    public enum Escaping { NONE, HTML }
+
+    private final String[] literals;      // literals.length == slotNames.length + 1
+    private final byte[][] literalBytes;  // dieselben Literale als UTF-8
+    private final int literalBytesLength;
+    private final String[] slotNames;     // Slot i steht zwischen literals[i] und literals[i + 1]
+    private final int[] slotIndex;        // Slot-Position -> Index in Values (gleiche Namen teilen sich einen Wert)
+    private final Map<String, Integer> valueIndex;
+    private final Escaping escaping;
+
+    private TextTemplate(List<String> literals, List<String> slotNames, Escaping escaping) {
+        this.literals = literals.toArray(String[]::new);
+        this.literalBytes = new byte[this.literals.length][];
+        for (int i = 0; i < this.literals.length; i++) {
+            literalBytes[i] = this.literals[i].getBytes(StandardCharsets.UTF_8);
+        }
+        this.literalBytesLength = Arrays.stream(literalBytes).mapToInt(b -> b.length).sum();
+        this.slotNames = slotNames.toArray(String[]::new);
+        this.slotIndex = new int[this.slotNames.length];
+        this.valueIndex = new HashMap<>();
+        for (int i = 0; i < this.slotNames.length; i++) {
+            Integer index = valueIndex.putIfAbsent(this.slotNames[i], valueIndex.size());
+            slotIndex[i] = index == null ? valueIndex.size() - 1 : index;
+        }
+        this.escaping = escaping;
+    }
+
+    /*
+     * Zerlegt den Text einmalig in Literale und Slots.
+     */
+    public static TextTemplate compile(String text, Escaping escaping) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = text.indexOf("{{", pos);
+            if (open < 0) {
+                literals.add(text.substring(pos));
+                return new TextTemplate(literals, slots, escaping);
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("unclosed placeholder at offset " + open);
+            }
+            String name = text.substring(open + 2, close).strip();
+            if (name.isEmpty() || !name.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '_')) {
+                throw new IllegalArgumentException("invalid placeholder '" + name + "' at offset " + open);
+            }
+            literals.add(text.substring(pos, open));
+            slots.add(name);
+            pos = close + 2;
+        }
+    }
+
+    public static TextTemplate html(String text) {
+        return compile(text, Escaping.HTML);
+    }
+
+    /*
+     * Index eines Platzhalters – einmal nachschlagen, dann mit Values.set(index, ...) arbeiten.
+     */
+    public int slot(String name) {
+        Integer index = valueIndex.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("unknown placeholder '" + name + "', known: " + valueIndex.keySet());
+        }
+        return index;
+    }
+
+    public Values newValues() {
+        return new Values(valueIndex.size());
+    }
+
+    /*
+     * Wiederverwendbare Belegung der Platzhalter (nicht threadsicher).
+     */
+    public static final class Values {
+        private final CharSequence[] texts;
+        private final long[] numbers;
+        private final boolean[] isNumber;
+
+        private Values(int size) {
+            texts = new CharSequence[size];
+            numbers = new long[size];
+            isNumber = new boolean[size];
+        }
+
+        public Values set(int slot, CharSequence value) {
+            texts[slot] = value;
+            isNumber[slot] = false;
+            return this;
+        }
+
+        public Values set(int slot, long value) {
+            numbers[slot] = value;
+            isNumber[slot] = true;
+            texts[slot] = null;
+            return this;
+        }
+
+        public void clear() {
+            Arrays.fill(texts, null);
+            Arrays.fill(isNumber, false);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Rendern in einen StringBuilder
+    // ------------------------------------------------------------
+
+    public StringBuilder renderTo(StringBuilder out, Values values) {
+        for (int i = 0; i < slotNames.length; i++) {
+            out.append(literals[i]);
+            int v = slotIndex[i];
+            if (values.isNumber[v]) {
+                out.append(values.numbers[v]);
+            } else {
+                appendEscaped(out, requireValue(values, i));
+            }
+        }
+        return out.append(literals[slotNames.length]);
+    }
+
+    // bequem, aber allokiert den Ergebnis-String
+    public String render(Values values) {
+        return renderTo(new StringBuilder(estimatedLength()), values).toString();
+    }
+
+    private void appendEscaped(StringBuilder out, CharSequence value) {
+        if (escaping == Escaping.NONE) {
+            out.append(value);
+            return;
+        }
+        int start = 0; // Abschnitte ohne Sonderzeichen am Stück anhängen
+        for (int i = 0, n = value.length(); i < n; i++) {
+            String entity = htmlEntity(value.charAt(i));
+            if (entity != null) {
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+
+    // ------------------------------------------------------------
+    // Rendern als UTF-8 in einen ByteBuffer
+    // ------------------------------------------------------------
+
+    public ByteBuffer renderTo(ByteBuffer out, Values values) {
+        if (out.hasArray() && out.remaining() >= worstCaseBytes(values)) {
+            // Heap-Puffer mit garantiert genug Platz: direkt ins Array, ohne Prüfung pro Byte
+            int end = renderTo(out.array(), out.arrayOffset() + out.position(), values);
+            return out.position(end - out.arrayOffset());
+        }
+        for (int i = 0; i < slotNames.length; i++) {
+            out.put(literalBytes[i]);
+            int v = slotIndex[i];
+            if (values.isNumber[v]) {
+                putDecimal(out, values.numbers[v]);
+            } else {
+                putUtf8Escaped(out, requireValue(values, i));
+            }
+        }
+        return out.put(literalBytes[slotNames.length]);
+    }
+
+    private int renderTo(byte[] out, int pos, Values values) {
+        for (int i = 0; i < slotNames.length; i++) {
+            byte[] literal = literalBytes[i];
+            System.arraycopy(literal, 0, out, pos, literal.length);
+            pos += literal.length;
+            int v = slotIndex[i];
+            if (values.isNumber[v]) {
+                pos = writeDecimal(out, pos, values.numbers[v]);
+            } else {
+                pos = writeUtf8Escaped(out, pos, requireValue(values, i));
+            }
+        }
+        byte[] last = literalBytes[slotNames.length];
+        System.arraycopy(last, 0, out, pos, last.length);
+        return pos + last.length;
+    }
+
+    // höchstens 6 Byte pro Zeichen ("&quot;"), 20 pro Zahl
+    private int worstCaseBytes(Values values) {
+        int bytes = literalBytesLength;
+        for (int i = 0; i < slotNames.length; i++) {
+            int v = slotIndex[i];
+            bytes += values.isNumber[v] ? 20 : 6 * requireValue(values, i).length();
+        }
+        return bytes;
+    }
+
+    private int writeUtf8Escaped(byte[] out, int pos, CharSequence value) {
+        boolean html = escaping == Escaping.HTML;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                String entity = html ? htmlEntity(c) : null;
+                if (entity == null) {
+                    out[pos++] = (byte) c;
+                } else {
+                    for (int k = 0; k < entity.length(); k++) {
+                        out[pos++] = (byte) entity.charAt(k);
+                    }
+                }
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | c >> 6);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out[pos++] = (byte) (0xF0 | cp >> 18);
+                out[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                out[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                out[pos++] = (byte) '?';
+            } else {
+                out[pos++] = (byte) (0xE0 | c >> 12);
+                out[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return pos;
+    }
+
+    private static int writeDecimal(byte[] out, int pos, long value) {
+        if (value < 0) {
+            out[pos++] = '-';
+        } else {
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor <= -10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            out[pos++] = (byte) ('0' - value / divisor);
+            value %= divisor;
+            divisor /= 10;
+        }
+        return pos;
+    }
+
+    // Escapen und UTF-8-Kodieren in einem Durchgang
+    private void putUtf8Escaped(ByteBuffer out, CharSequence value) {
+        boolean html = escaping == Escaping.HTML;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                String entity = html ? htmlEntity(c) : null;
+                if (entity == null) {
+                    out.put((byte) c);
+                } else {
+                    for (int k = 0; k < entity.length(); k++) {
+                        out.put((byte) entity.charAt(k));
+                    }
+                }
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                        .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // einzelnes Surrogat, wie String.getBytes(UTF_8)
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static void putDecimal(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+        } else {
+            value = -value; // negativ rechnen, damit auch Long.MIN_VALUE passt
+        }
+        long divisor = 1;
+        while (value / divisor <= -10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            out.put((byte) ('0' - value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    // ------------------------------------------------------------
+
+    private static String htmlEntity(char c) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '"' -> "&quot;";
+            case '\'' -> "&#39;";
+            default -> null;
+        };
+    }
+
+    private CharSequence requireValue(Values values, int slotPosition) {
+        CharSequence value = values.texts[slotIndex[slotPosition]];
+        if (value == null) {
+            throw new IllegalStateException("placeholder '" + slotNames[slotPosition] + "' not set");
+        }
+        return value;
+    }
+
+    // Literale + 16 Zeichen pro Slot
+    public int estimatedLength() {
+        int length = 16 * slotNames.length;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "TextTemplate" + List.of(slotNames) + " (" + escaping + ")";
+    }
+}
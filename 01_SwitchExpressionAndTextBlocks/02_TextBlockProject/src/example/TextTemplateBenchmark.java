@@ -0,0 +1,166 @@
+package example;
+
+import static java.lang.StringTemplate.STR;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Dieselbe HTML-Seite auf fünf Wegen (alle Werte HTML-escaped):
+ *  - STR:                  STR."""...\{escape(name)}..."""          (Preview in Java 21)
+ *  - formatted:            """...%s...""".formatted(escape(name), ...)
+ *  - concat:               "..." + escape(name) + "..."
+ *  - template-builder:     TextTemplate in einen wiederverwendeten StringBuilder
+ *  - template-utf8:        TextTemplate als UTF-8 in einen wiederverwendeten ByteBuffer
+ *
+ * Die ersten drei liefern einen neuen String, die Template-Varianten schreiben in
+ * einen Puffer (so wie ein Server, der die Antwort direkt weiterschickt).
+ *
+ * Gemessen: ns pro Rendern und allokierte Bytes pro Rendern
+ * (com.sun.management.ThreadMXBean, nur im messenden Thread).
+ *
+ * Ausgabe als CSV: variant,nsPerRender,allocatedBytesPerRender
+ *
+ * Start:  java --enable-preview example.TextTemplateBenchmark [iterationen]
+ */
+public class TextTemplateBenchmark {
+
+    static final TextTemplate PAGE = TextTemplate.html("""
+            <html>
+                <body>
+                    <h1>Hallo {{name}}!</h1>
+                    <p>Firma: {{company}}, Ort: {{city}}</p>
+                    <p>Sie haben {{count}} neue Nachrichten.</p>
+                </body>
+            </html>
+            """);
+
+    static final String FORMAT = """
+            <html>
+                <body>
+                    <h1>Hallo %s!</h1>
+                    <p>Firma: %s, Ort: %s</p>
+                    <p>Sie haben %d neue Nachrichten.</p>
+                </body>
+            </html>
+            """;
+
+    interface Renderer {
+        // liefert die Länge des Ergebnisses (als Kontrolle)
+        int render(String name, String company, String city, long count);
+    }
+
+    static volatile int sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        String name = "Lisa";
+        String company = "Müller & Söhne <GmbH>";
+        String city = "Köln";
+        long count = 42;
+
+        int nameSlot = PAGE.slot("name");
+        int companySlot = PAGE.slot("company");
+        int citySlot = PAGE.slot("city");
+        int countSlot = PAGE.slot("count");
+        TextTemplate.Values values = PAGE.newValues();
+        StringBuilder builder = new StringBuilder(PAGE.estimatedLength());
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        Renderer str = (n, co, ci, c) -> STR."""
+                <html>
+                    <body>
+                        <h1>Hallo \{escape(n)}!</h1>
+                        <p>Firma: \{escape(co)}, Ort: \{escape(ci)}</p>
+                        <p>Sie haben \{c} neue Nachrichten.</p>
+                    </body>
+                </html>
+                """.length();
+        Renderer formatted = (n, co, ci, c) -> FORMAT.formatted(escape(n), escape(co), escape(ci), c).length();
+        Renderer concat = (n, co, ci, c) -> ("<html>\n    <body>\n        <h1>Hallo " + escape(n)
+                + "!</h1>\n        <p>Firma: " + escape(co) + ", Ort: " + escape(ci)
+                + "</p>\n        <p>Sie haben " + c + " neue Nachrichten.</p>\n    </body>\n</html>\n").length();
+        Renderer templateBuilder = (n, co, ci, c) -> {
+            values.set(nameSlot, n).set(companySlot, co).set(citySlot, ci).set(countSlot, c);
+            builder.setLength(0);
+            return PAGE.renderTo(builder, values).length();
+        };
+        Renderer templateUtf8 = (n, co, ci, c) -> {
+            values.set(nameSlot, n).set(companySlot, co).set(citySlot, ci).set(countSlot, c);
+            buffer.clear();
+            return PAGE.renderTo(buffer, values).position();
+        };
+
+        // alle Varianten müssen dasselbe liefern
+        String expected = FORMAT.formatted(escape(name), escape(company), escape(city), count);
+        values.set(nameSlot, name).set(companySlot, company).set(citySlot, city).set(countSlot, count);
+        buffer.clear();
+        PAGE.renderTo(buffer, values).flip();
+        String utf8 = StandardCharsets.UTF_8.decode(buffer).toString();
+        if (!expected.equals(PAGE.render(values)) || !expected.equals(utf8)) {
+            throw new AssertionError("TextTemplate renders differently:\n" + PAGE.render(values));
+        }
+        System.out.print(expected);
+
+        System.out.println("variant,nsPerRender,allocatedBytesPerRender");
+        measure("STR", iterations, str, name, company, city, count);
+        measure("formatted", iterations, formatted, name, company, city, count);
+        measure("concat", iterations, concat, name, company, city, count);
+        measure("template-builder", iterations, templateBuilder, name, company, city, count);
+        measure("template-utf8", iterations, templateUtf8, name, company, city, count);
+    }
+
+    // Escaping für die String-Varianten (allokiert nur, wenn es etwas zu ersetzen gibt)
+    static String escape(String s) {
+        StringBuilder out = null;
+        for (int i = 0; i < s.length(); i++) {
+            String entity = switch (s.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null && out == null) {
+                out = new StringBuilder(s.length() + 16).append(s, 0, i);
+            }
+            if (out != null) {
+                if (entity != null) {
+                    out.append(entity);
+                } else {
+                    out.append(s.charAt(i));
+                }
+            }
+        }
+        return out == null ? s : out.toString();
+    }
+
+    static void measure(String variant, int iterations, Renderer renderer,
+                        String name, String company, String city, long count) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < iterations; i++) { // Warmup
+            sink = renderer.render(name, company, city, count);
+        }
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < 5; round++) {
+            long a0 = threads.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink = renderer.render(name, company, city, count);
+            }
+            long elapsed = System.nanoTime() - t0;
+            if (elapsed < best) {
+                best = elapsed;
+                allocated = threads.getThreadAllocatedBytes(threadId) - a0;
+            }
+        }
+        System.out.printf("%s,%.1f,%.1f%n", variant, (double) best / iterations, (double) allocated / iterations);
+    }
+}
@@ -0,0 +1,402 @@
+package example;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.DoubleConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.DoubleStream;
+
+/*
+ * Folge von double-Werten ohne Boxing: Ringpuffer, der zugleich Deque und Liste ist.
+ *
+ * Dieselbe Semantik wie SequencedCollection (siehe SequencedExample):
+ *  - addFirst / addLast / getFirst / getLast / removeFirst / removeLast in O(1)
+ *    (leere Folge -> NoSuchElementException)
+ *  - reversed() ist eine LIVE-Sicht in umgekehrter Reihenfolge, keine Kopie
+ *  - get / set per Index in O(1), add / removeAt in der Mitte verschieben die kürzere Seite
+ *
+ * asList() liefert einen List<Double>-Adapter (List ist seit Java 21 eine SequencedCollection),
+ * damit bestehender Code die Folge ohne Kopie verwenden kann. Erst beim Zugriff über den
+ * Adapter wird geboxt.
+ *
+ * Speicher: 8 Byte pro Element (plus höchstens Faktor 2 Reserve),
+ * statt Referenz + Double-Objekt bei ArrayList<Double> / ArrayDeque<Double>.
+ *
+ * Vorteile:
+ *  - kein Boxing, die Werte liegen zusammenhängend im Array
+ *  - Schiebefenster (addLast + removeFirst) ohne Kopieren und ohne Garbage
+ * Nachteile:
+ *  - nicht threadsicher, Iteratoren sind nicht fail-fast
+ *  - eigene API neben dem Collections-Framework (Brücke nur über asList())
+ */
+public final class DoubleSequence {
+
+    // gemeinsamer Zustand von Folge und reversed()-Sicht
+    private static final class Store {
+        double[] elements;
+        int head;  // physische Position des ersten Elements
+        int size;
+
+        Store(int capacity) {
+            elements = new double[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+        }
+
+        int index(int i) {
+            return (head + i) & (elements.length - 1);
+        }
+
+        void ensureCapacity() {
+            if (size == elements.length) {
+                if (elements.length == 1 << 30) {
+                    throw new IllegalStateException("sequence too large");
+                }
+                double[] grown = new double[elements.length << 1];
+                int firstPart = Math.min(size, elements.length - head);
+                System.arraycopy(elements, head, grown, 0, firstPart);
+                System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+                elements = grown;
+                head = 0;
+            }
+        }
+
+        void addFirst(double value) {
+            ensureCapacity();
+            head = (head - 1) & (elements.length - 1);
+            elements[head] = value;
+            size++;
+        }
+
+        void addLast(double value) {
+            ensureCapacity();
+            elements[index(size)] = value;
+            size++;
+        }
+
+        double removeFirst() {
+            double value = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return value;
+        }
+
+        double removeLast() {
+            size--;
+            return elements[index(size)];
+        }
+
+        void insert(int i, double value) {
+            ensureCapacity();
+            if (i < size / 2) {
+                head = (head - 1) & (elements.length - 1); // linken Teil nach links schieben
+                for (int k = 0; k < i; k++) {
+                    elements[index(k)] = elements[index(k + 1)];
+                }
+            } else {
+                for (int k = size; k > i; k--) { // rechten Teil nach rechts schieben
+                    elements[index(k)] = elements[index(k - 1)];
+                }
+            }
+            elements[index(i)] = value;
+            size++;
+        }
+
+        double remove(int i) {
+            double value = elements[index(i)];
+            if (i < size / 2) {
+                for (int k = i; k > 0; k--) {
+                    elements[index(k)] = elements[index(k - 1)];
+                }
+                head = (head + 1) & (elements.length - 1);
+            } else {
+                for (int k = i; k < size - 1; k++) {
+                    elements[index(k)] = elements[index(k + 1)];
+                }
+            }
+            size--;
+            return value;
+        }
+    }
+
+    private final Store store;
+    private final boolean reversed;
+
+    public DoubleSequence() {
+        this(16);
+    }
+
+    public DoubleSequence(int initialCapacity) {
+        this(new Store(initialCapacity), false);
+    }
+
+    private DoubleSequence(Store store, boolean reversed) {
+        this.store = store;
+        this.reversed = reversed;
+    }
+
+    public static DoubleSequence of(double... values) {
+        DoubleSequence sequence = new DoubleSequence(values.length);
+        for (double value : values) {
+            sequence.addLast(value);
+        }
+        return sequence;
+    }
+
+    public int size() {
+        return store.size;
+    }
+
+    public boolean isEmpty() {
+        return store.size == 0;
+    }
+
+    public void clear() {
+        store.head = 0;
+        store.size = 0;
+    }
+
+    // ------------------------------------------------------------
+    // Enden (SequencedCollection-Semantik)
+    // ------------------------------------------------------------
+
+    public void addFirst(double value) {
+        if (reversed) {
+            store.addLast(value);
+        } else {
+            store.addFirst(value);
+        }
+    }
+
+    public void addLast(double value) {
+        if (reversed) {
+            store.addFirst(value);
+        } else {
+            store.addLast(value);
+        }
+    }
+
+    public double getFirst() {
+        requireNotEmpty();
+        return get(0);
+    }
+
+    public double getLast() {
+        requireNotEmpty();
+        return get(store.size - 1);
+    }
+
+    public double removeFirst() {
+        requireNotEmpty();
+        return reversed ? store.removeLast() : store.removeFirst();
+    }
+
+    public double removeLast() {
+        requireNotEmpty();
+        return reversed ? store.removeFirst() : store.removeLast();
+    }
+
+    public DoubleSequence reversed() {
+        return new DoubleSequence(store, !reversed);
+    }
+
+    // ------------------------------------------------------------
+    // Indexzugriff (Listen-Semantik)
+    // ------------------------------------------------------------
+
+    public double get(int index) {
+        return store.elements[store.index(physical(checkIndex(index)))];
+    }
+
+    public double set(int index, double value) {
+        int i = store.index(physical(checkIndex(index)));
+        double old = store.elements[i];
+        store.elements[i] = value;
+        return old;
+    }
+
+    public void add(int index, double value) {
+        if (index < 0 || index > store.size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + store.size);
+        }
+        store.insert(reversed ? store.size - index : index, value);
+    }
+
+    public double removeAt(int index) {
+        return store.remove(physical(checkIndex(index)));
+    }
+
+    public int indexOf(double value) {
+        for (int i = 0; i < store.size; i++) {
+            if (Double.compare(get(i), value) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    // ------------------------------------------------------------
+    // Massenoperationen
+    // ------------------------------------------------------------
+
+    public void forEach(DoubleConsumer action) {
+        for (int i = 0; i < store.size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < store.size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (next >= store.size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    public DoubleStream stream() {
+        return IntStream.range(0, store.size).mapToDouble(this::get);
+    }
+
+    public double[] toArray() {
+        double[] result = new double[store.size];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    /*
+     * Boxende Sicht für bestehenden Code: Änderungen wirken in beide Richtungen.
+     */
+    public List<Double> asList() {
+        return new BoxedList();
+    }
+
+    private final class BoxedList extends AbstractList<Double> implements RandomAccess {
+
+        @Override
+        public Double get(int index) {
+            return DoubleSequence.this.get(index);
+        }
+
+        @Override
+        public Double set(int index, Double value) {
+            return DoubleSequence.this.set(index, value);
+        }
+
+        @Override
+        public void add(int index, Double value) {
+            DoubleSequence.this.add(index, value);
+        }
+
+        @Override
+        public Double remove(int index) {
+            return removeAt(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size;
+        }
+
+        @Override
+        public void clear() {
+            DoubleSequence.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Double value && DoubleSequence.this.contains(value);
+        }
+
+        @Override
+        public void addFirst(Double value) {
+            DoubleSequence.this.addFirst(value);
+        }
+
+        @Override
+        public void addLast(Double value) {
+            DoubleSequence.this.addLast(value);
+        }
+
+        @Override
+        public Double removeFirst() {
+            return DoubleSequence.this.removeFirst();
+        }
+
+        @Override
+        public Double removeLast() {
+            return DoubleSequence.this.removeLast();
+        }
+
+        @Override
+        public List<Double> reversed() {
+            return DoubleSequence.this.reversed().asList();
+        }
+    }
+
+    // ------------------------------------------------------------
+
+    private int physical(int index) {
+        return reversed ? store.size - 1 - index : index;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= store.size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + store.size);
+        }
+        return index;
+    }
+
+    private void requireNotEmpty() {
+        if (store.size == 0) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    // gleiche Elemente in gleicher Reihenfolge (unabhängig davon, ob Sicht oder nicht)
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleSequence other) || other.size() != size()) {
+            return false;
+        }
+        for (int i = 0; i < store.size; i++) {
+            if (Double.compare(get(i), other.get(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // wie List.hashCode() über die geboxten Werte
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < store.size; i++) {
+            hash = 31 * hash + Double.hashCode(get(i));
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
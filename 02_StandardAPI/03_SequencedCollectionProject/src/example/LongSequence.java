@@ -0,0 +1,402 @@
+package example;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/*
+ * Folge von long-Werten ohne Boxing: Ringpuffer, der zugleich Deque und Liste ist.
+ *
+ * Dieselbe Semantik wie SequencedCollection (siehe SequencedExample):
+ *  - addFirst / addLast / getFirst / getLast / removeFirst / removeLast in O(1)
+ *    (leere Folge -> NoSuchElementException)
+ *  - reversed() ist eine LIVE-Sicht in umgekehrter Reihenfolge, keine Kopie
+ *  - get / set per Index in O(1), add / removeAt in der Mitte verschieben die kürzere Seite
+ *
+ * asList() liefert einen List<Long>-Adapter (List ist seit Java 21 eine SequencedCollection),
+ * damit bestehender Code die Folge ohne Kopie verwenden kann. Erst beim Zugriff über den
+ * Adapter wird geboxt.
+ *
+ * Speicher: 8 Byte pro Element (plus höchstens Faktor 2 Reserve),
+ * statt Referenz + Long-Objekt bei ArrayList<Long> / ArrayDeque<Long>.
+ *
+ * Vorteile:
+ *  - kein Boxing, die Werte liegen zusammenhängend im Array
+ *  - Schiebefenster (addLast + removeFirst) ohne Kopieren und ohne Garbage
+ * Nachteile:
+ *  - nicht threadsicher, Iteratoren sind nicht fail-fast
+ *  - eigene API neben dem Collections-Framework (Brücke nur über asList())
+ */
+public final class LongSequence {
+
+    // gemeinsamer Zustand von Folge und reversed()-Sicht
+    private static final class Store {
+        long[] elements;
+        int head;  // physische Position des ersten Elements
+        int size;
+
+        Store(int capacity) {
+            elements = new long[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+        }
+
+        int index(int i) {
+            return (head + i) & (elements.length - 1);
+        }
+
+        void ensureCapacity() {
+            if (size == elements.length) {
+                if (elements.length == 1 << 30) {
+                    throw new IllegalStateException("sequence too large");
+                }
+                long[] grown = new long[elements.length << 1];
+                int firstPart = Math.min(size, elements.length - head);
+                System.arraycopy(elements, head, grown, 0, firstPart);
+                System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+                elements = grown;
+                head = 0;
+            }
+        }
+
+        void addFirst(long value) {
+            ensureCapacity();
+            head = (head - 1) & (elements.length - 1);
+            elements[head] = value;
+            size++;
+        }
+
+        void addLast(long value) {
+            ensureCapacity();
+            elements[index(size)] = value;
+            size++;
+        }
+
+        long removeFirst() {
+            long value = elements[head];
+            head = (head + 1) & (elements.length - 1);
+            size--;
+            return value;
+        }
+
+        long removeLast() {
+            size--;
+            return elements[index(size)];
+        }
+
+        void insert(int i, long value) {
+            ensureCapacity();
+            if (i < size / 2) {
+                head = (head - 1) & (elements.length - 1); // linken Teil nach links schieben
+                for (int k = 0; k < i; k++) {
+                    elements[index(k)] = elements[index(k + 1)];
+                }
+            } else {
+                for (int k = size; k > i; k--) { // rechten Teil nach rechts schieben
+                    elements[index(k)] = elements[index(k - 1)];
+                }
+            }
+            elements[index(i)] = value;
+            size++;
+        }
+
+        long remove(int i) {
+            long value = elements[index(i)];
+            if (i < size / 2) {
+                for (int k = i; k > 0; k--) {
+                    elements[index(k)] = elements[index(k - 1)];
+                }
+                head = (head + 1) & (elements.length - 1);
+            } else {
+                for (int k = i; k < size - 1; k++) {
+                    elements[index(k)] = elements[index(k + 1)];
+                }
+            }
+            size--;
+            return value;
+        }
+    }
+
+    private final Store store;
+    private final boolean reversed;
+
+    public LongSequence() {
+        this(16);
+    }
+
+    public LongSequence(int initialCapacity) {
+        this(new Store(initialCapacity), false);
+    }
+
+    private LongSequence(Store store, boolean reversed) {
+        this.store = store;
+        this.reversed = reversed;
+    }
+
+    public static LongSequence of(long... values) {
+        LongSequence sequence = new LongSequence(values.length);
+        for (long value : values) {
+            sequence.addLast(value);
+        }
+        return sequence;
+    }
+
+    public int size() {
+        return store.size;
+    }
+
+    public boolean isEmpty() {
+        return store.size == 0;
+    }
+
+    public void clear() {
+        store.head = 0;
+        store.size = 0;
+    }
+
+    // ------------------------------------------------------------
+    // Enden (SequencedCollection-Semantik)
+    // ------------------------------------------------------------
+
+    public void addFirst(long value) {
+        if (reversed) {
+            store.addLast(value);
+        } else {
+            store.addFirst(value);
+        }
+    }
+
+    public void addLast(long value) {
+        if (reversed) {
+            store.addFirst(value);
+        } else {
+            store.addLast(value);
+        }
+    }
+
+    public long getFirst() {
+        requireNotEmpty();
+        return get(0);
+    }
+
+    public long getLast() {
+        requireNotEmpty();
+        return get(store.size - 1);
+    }
+
+    public long removeFirst() {
+        requireNotEmpty();
+        return reversed ? store.removeLast() : store.removeFirst();
+    }
+
+    public long removeLast() {
+        requireNotEmpty();
+        return reversed ? store.removeFirst() : store.removeLast();
+    }
+
+    public LongSequence reversed() {
+        return new LongSequence(store, !reversed);
+    }
+
+    // ------------------------------------------------------------
+    // Indexzugriff (Listen-Semantik)
+    // ------------------------------------------------------------
+
+    public long get(int index) {
+        return store.elements[store.index(physical(checkIndex(index)))];
+    }
+
+    public long set(int index, long value) {
+        int i = store.index(physical(checkIndex(index)));
+        long old = store.elements[i];
+        store.elements[i] = value;
+        return old;
+    }
+
+    public void add(int index, long value) {
+        if (index < 0 || index > store.size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + store.size);
+        }
+        store.insert(reversed ? store.size - index : index, value);
+    }
+
+    public long removeAt(int index) {
+        return store.remove(physical(checkIndex(index)));
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < store.size; i++) {
+            if (get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    // ------------------------------------------------------------
+    // Massenoperationen
+    // ------------------------------------------------------------
+
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < store.size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < store.size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (next >= store.size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    public LongStream stream() {
+        return IntStream.range(0, store.size).mapToLong(this::get);
+    }
+
+    public long[] toArray() {
+        long[] result = new long[store.size];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    /*
+     * Boxende Sicht für bestehenden Code: Änderungen wirken in beide Richtungen.
+     */
+    public List<Long> asList() {
+        return new BoxedList();
+    }
+
+    private final class BoxedList extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(int index) {
+            return LongSequence.this.get(index);
+        }
+
+        @Override
+        public Long set(int index, Long value) {
+            return LongSequence.this.set(index, value);
+        }
+
+        @Override
+        public void add(int index, Long value) {
+            LongSequence.this.add(index, value);
+        }
+
+        @Override
+        public Long remove(int index) {
+            return removeAt(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size;
+        }
+
+        @Override
+        public void clear() {
+            LongSequence.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long value && LongSequence.this.contains(value);
+        }
+
+        @Override
+        public void addFirst(Long value) {
+            LongSequence.this.addFirst(value);
+        }
+
+        @Override
+        public void addLast(Long value) {
+            LongSequence.this.addLast(value);
+        }
+
+        @Override
+        public Long removeFirst() {
+            return LongSequence.this.removeFirst();
+        }
+
+        @Override
+        public Long removeLast() {
+            return LongSequence.this.removeLast();
+        }
+
+        @Override
+        public List<Long> reversed() {
+            return LongSequence.this.reversed().asList();
+        }
+    }
+
+    // ------------------------------------------------------------
+
+    private int physical(int index) {
+        return reversed ? store.size - 1 - index : index;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= store.size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + store.size);
+        }
+        return index;
+    }
+
+    private void requireNotEmpty() {
+        if (store.size == 0) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    // gleiche Elemente in gleicher Reihenfolge (unabhängig davon, ob Sicht oder nicht)
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof LongSequence other) || other.size() != size()) {
+            return false;
+        }
+        for (int i = 0; i < store.size; i++) {
+            if (get(i) != other.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // wie List.hashCode() über die geboxten Werte
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < store.size; i++) {
+            hash = 31 * hash + Long.hashCode(get(i));
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
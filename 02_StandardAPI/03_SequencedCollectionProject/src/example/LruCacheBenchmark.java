@@ -0,0 +1,133 @@
+package example;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * SequencedLruCache gegen Collections.synchronizedMap(LinkedHashMap mit accessOrder = true).
+ *
+ * Last: 90 % get, 10 % put, schiefe Schlüsselverteilung (wenige heiße Schlüssel, langer Schwanz),
+ * 100.000 mögliche Schlüssel, Cache für 10.000 Einträge.
+ * Gemessen: Operationen pro Sekunde bei 1..64 Plattform-Threads, jeweils feste Laufzeit.
+ *
+ * Ausgabe als CSV: threads,variant,opsPerSecond,hitRate
+ *
+ * Start:  java example.LruCacheBenchmark [millisProLauf]
+ */
+public class LruCacheBenchmark {
+
+    static final int KEYS = 100_000;
+    static final int CAPACITY = 10_000;
+
+    interface Cache {
+        Integer get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        // Verdrängung in Aktion: Kapazität 3, ein Segment
+        SequencedLruCache<String, String> small = new SequencedLruCache<>(3, (k, v) -> 1, 1);
+        small.put("a", "A");
+        small.put("b", "B");
+        small.put("c", "C");
+        small.get("a"); // a ist jetzt zuletzt benutzt (spätestens beim nächsten put umsortiert)
+        small.put("d", "D");
+        System.out.println("# nach put(d): a=" + small.get("a") + ", b=" + small.get("b") + " | " + small.stats());
+
+        int[] keys = skewedKeys(1 << 20);
+
+        System.out.println("threads,variant,opsPerSecond,hitRate");
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Map<Integer, Integer> lhm = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > CAPACITY;
+                }
+            });
+            run(threads, "synchronized-LinkedHashMap", millis, keys, new Cache() {
+                public Integer get(Integer key) {
+                    return lhm.get(key);
+                }
+
+                public void put(Integer key, Integer value) {
+                    lhm.put(key, value);
+                }
+            });
+
+            SequencedLruCache<Integer, Integer> lru = new SequencedLruCache<>(CAPACITY);
+            run(threads, "SequencedLruCache", millis, keys, new Cache() {
+                public Integer get(Integer key) {
+                    return lru.get(key);
+                }
+
+                public void put(Integer key, Integer value) {
+                    lru.put(key, value);
+                }
+            });
+        }
+    }
+
+    static void run(int threads, String variant, long millis, int[] keys, Cache cache)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        LongAdder gets = new LongAdder();
+        LongAdder hits = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = Thread.ofPlatform().start(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                int i = random.nextInt(keys.length);
+                long localOps = 0, localGets = 0, localHits = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while ((localOps & 1023) != 0 || System.nanoTime() < deadline[0]) {
+                    Integer key = keys[i++ & (keys.length - 1)];
+                    if (random.nextInt(10) == 0) {
+                        cache.put(key, key);
+                    } else {
+                        localGets++;
+                        if (cache.get(key) != null) {
+                            localHits++;
+                        } else {
+                            cache.put(key, key); // Miss -> nachladen
+                        }
+                    }
+                    localOps++;
+                }
+                ops.add(localOps);
+                gets.add(localGets);
+                hits.add(localHits);
+            });
+        }
+        deadline[0] = System.nanoTime() + millis * 1_000_000;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.printf("%d,%s,%.0f,%.3f%n", threads, variant, ops.sum() / (millis / 1000.0),
+                (double) hits.sum() / gets.sum());
+    }
+
+    // Potenzverteilung: Schlüssel 0 am häufigsten, danach schnell abfallend
+    static int[] skewedKeys(int n) {
+        SplittableRandom random = new SplittableRandom(23);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (int) (KEYS * Math.pow(random.nextDouble(), 4));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,173 @@
+package example;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SequencedCollection;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/*
+ * IntSequence / LongSequence gegen ArrayList<Integer> / ArrayDeque<Long>.
+ *
+ * Gemessen:
+ *  - Speicher pro Element (belegter Heap nach GC, Werte außerhalb des Integer-Caches)
+ *  - fill+sum:  n x addLast, danach Summe über alle Elemente      (Liste)
+ *  - window:    Schiebefenster, addLast + removeFirst + getFirst  (Deque)
+ *  - Operationen pro Sekunde und allokierte Bytes pro Operation
+ *    (com.sun.management.ThreadMXBean, nur im messenden Thread)
+ *
+ * Ausgabe als CSV: operation,variant,opsPerSecond,allocatedBytesPerOp
+ *
+ * Start:  java -Xmx2g example.PrimitiveSequenceBenchmark [elemente]
+ */
+public class PrimitiveSequenceBenchmark {
+
+    static volatile long sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        // Dieselbe Semantik wie in SequencedExample – nur ohne Boxing
+        IntSequence seq = IntSequence.of(1, 2, 3);
+        seq.removeLast();
+        seq.addFirst(0);
+        System.out.println("# IntSequence: " + seq + ", reversed: " + seq.reversed()
+                + ", getLast: " + seq.getLast());
+        SequencedCollection<Integer> boxed = seq.asList(); // Brücke zu bestehendem Code
+        boxed.addLast(42);
+        System.out.println("# als SequencedCollection: " + boxed + ", max: " + Collections.max(boxed));
+
+        memory(n);
+
+        System.out.println("operation,variant,opsPerSecond,allocatedBytesPerOp");
+        int[] values = new SplittableRandom(1).ints(n, 1_000, Integer.MAX_VALUE).toArray();
+
+        measure("fill+sum", "ArrayList<Integer>", n, () -> {
+            List<Integer> list = new ArrayList<>();
+            for (int v : values) {
+                list.addLast(v);
+            }
+            long sum = 0;
+            for (int i = 0; i < list.size(); i++) {
+                sum += list.get(i);
+            }
+            sink = sum;
+        });
+        measure("fill+sum", "IntSequence", n, () -> {
+            IntSequence list = new IntSequence();
+            for (int v : values) {
+                list.addLast(v);
+            }
+            long sum = 0;
+            for (int i = 0; i < list.size(); i++) {
+                sum += list.get(i);
+            }
+            sink = sum;
+        });
+
+        int window = 1024;
+        measure("window", "ArrayDeque<Long>", n, () -> {
+            Deque<Long> deque = new ArrayDeque<>();
+            long sum = 0;
+            for (int v : values) {
+                deque.addLast((long) v);
+                sum += v;
+                if (deque.size() > window) {
+                    sum -= deque.removeFirst();
+                }
+                sum += deque.getFirst() & 1;
+            }
+            sink = sum;
+        });
+        measure("window", "LongSequence", n, () -> {
+            LongSequence deque = new LongSequence();
+            long sum = 0;
+            for (int v : values) {
+                deque.addLast(v);
+                sum += v;
+                if (deque.size() > window) {
+                    sum -= deque.removeFirst();
+                }
+                sum += deque.getFirst() & 1;
+            }
+            sink = sum;
+        });
+    }
+
+    static void memory(int n) {
+        SplittableRandom random = new SplittableRandom(2);
+        footprint("ArrayList<Integer>", n, () -> {
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                list.addLast(random.nextInt(1_000, Integer.MAX_VALUE));
+            }
+            return list;
+        });
+        footprint("IntSequence", n, () -> {
+            IntSequence ints = new IntSequence();
+            for (int i = 0; i < n; i++) {
+                ints.addLast(random.nextInt(1_000, Integer.MAX_VALUE));
+            }
+            return ints;
+        });
+        footprint("ArrayDeque<Long>", n, () -> {
+            Deque<Long> deque = new ArrayDeque<>();
+            for (int i = 0; i < n; i++) {
+                deque.addLast(random.nextLong(1_000, Long.MAX_VALUE));
+            }
+            return deque;
+        });
+        footprint("LongSequence", n, () -> {
+            LongSequence longs = new LongSequence();
+            for (int i = 0; i < n; i++) {
+                longs.addLast(random.nextLong(1_000, Long.MAX_VALUE));
+            }
+            return longs;
+        });
+    }
+
+    static Object retained; // hält die gemessene Collection sicher am Leben
+
+    static void footprint(String variant, int n, Supplier<Object> factory) {
+        long before = usedHeap();
+        retained = factory.get();
+        long bytes = usedHeap() - before;
+        retained = null;
+        System.out.printf("# Speicher %-20s %.1f Byte/Element%n", variant, (double) bytes / n);
+    }
+
+    static void measure(String operation, String variant, int n, Runnable op) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < 3; i++) { // Warmup
+            op.run();
+        }
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int i = 0; i < 5; i++) {
+            long a0 = threads.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            op.run();
+            long elapsed = System.nanoTime() - t0;
+            if (elapsed < best) {
+                best = elapsed;
+                allocated = threads.getThreadAllocatedBytes(threadId) - a0;
+            }
+        }
+        System.out.printf("%s,%s,%.0f,%.1f%n", operation, variant, n / (best / 1e9), (double) allocated / n);
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
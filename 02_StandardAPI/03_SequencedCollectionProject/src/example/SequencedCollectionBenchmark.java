@@ -0,0 +1,353 @@
+package example;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SequencedCollection;
+import java.util.SequencedMap;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/*
+ * Was kosten die SequencedCollection-Methoden (siehe SequencedExample) auf den
+ * verschiedenen JDK-Collections?
+ *
+ * Collections:  ArrayList, LinkedList, ArrayDeque, LinkedHashSet,
+ *               LinkedHashMap.sequencedKeySet(), TreeSet
+ * Operationen:  addFirst, addLast, removeFirst, removeLast, getFirst, getLast,
+ *               Iteration über reversed()
+ * Größen:       10 bis 1 Mio. (mit Argument bis 10 Mio.)
+ *
+ * Messung:
+ *  - Operationen in Batches, Batch-Größe wächst, bis ein Batch ~1 ms dauert
+ *  - nach jedem Batch wird die Collection (ungemessen) auf den Ausgangszustand
+ *    zurückgesetzt. Innerhalb eines Batches ändert sich die Größe: add/remove-Batches
+ *    sind deshalb auf size/10 begrenzt (höchstens 4096) -> jede Operation läuft auf
+ *    "size" ± 10 % Elementen (bei size = 10: genau eine Operation pro Batch)
+ *  - kleine Batches messen sonst vor allem das System.nanoTime()-Paar (~20–30 ns):
+ *    nach jedem Batch wird zusätzlich ein leerer Batch (k = 0) über denselben Pfad
+ *    gemessen; dessen Minimum (robust gegen GC-Pausen, eher zu wenig als zu viel)
+ *    wird pro Batch abgezogen und steht in der letzten Spalte
+ *  - allokierte Bytes pro Operation über com.sun.management.ThreadMXBean
+ *    (nur der gemessene Teil; die eingefügten Integer sind vorab geboxt)
+ *  - "n/a" = UnsupportedOperationException (z. B. addFirst auf TreeSet oder auf
+ *    der keySet-Sicht einer Map)
+ *
+ * Zu erwarten: removeFirst()/addFirst() auf ArrayList sind O(n) – genauso
+ * teuer wie remove(0), nur lesbarer geschrieben.
+ *
+ * Ausgabe als CSV: collection,operation,size,nsPerOp,allocatedBytesPerOp,timerOverheadNsPerBatch
+ * (bei reversedIteration: ns und Bytes pro Element)
+ *
+ * Start:  java -Xmx4g example.SequencedCollectionBenchmark [maxSize]
+ */
+public class SequencedCollectionBenchmark {
+
+    static final long WARMUP_NANOS = 50_000_000;
+    static final long MEASURE_NANOS = 150_000_000;
+    static final int MAX_ADDS_PER_BATCH = 4096;
+    static final int MAX_SIZE_CHANGE_DIVISOR = 10; // add/remove ändern die Größe um höchstens size/10
+
+    static volatile long sink;
+    static volatile int barrier; // volatile-Lesen pro Aufruf: getFirst() wird nicht aus der Schleife gezogen
+
+    // Collection + Möglichkeit, einzelne Werte vorne/hinten wieder einzufügen (fürs Zurücksetzen)
+    record Target(SequencedCollection<Integer> collection, IntConsumer restoreFirst, IntConsumer restoreLast) {}
+
+    record Impl(String name, IntFunction<Target> filled) {}
+
+    /*
+     * Eine Operation wird k-mal ausgeführt; restore stellt danach den Inhalt [0, size) wieder her.
+     */
+    interface Operation {
+        void run(Target target, int size, int k);
+
+        default void restore(Target target, int size, int k) {
+        }
+
+        default int maxBatch(int size) {
+            return 1 << 20;
+        }
+
+        default int elementsPerOp(int size) {
+            return 1;
+        }
+    }
+
+    static Integer[] frontValues; // -1, -2, ...   (vor 0 einsortiert)
+    static Integer[] backValues;  // size, size+1, ...
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        List<Impl> impls = List.of(
+                new Impl("ArrayList", n -> of(new ArrayList<>(range(0, n)))),
+                new Impl("LinkedList", n -> of(new LinkedList<>(range(0, n)))),
+                new Impl("ArrayDeque", n -> of(new ArrayDeque<>(range(0, n)))),
+                new Impl("LinkedHashSet", n -> of(new LinkedHashSet<>(range(0, n)))),
+                new Impl("LinkedHashMap.sequencedKeySet", n -> {
+                    SequencedMap<Integer, Integer> map = LinkedHashMap.newLinkedHashMap(n);
+                    for (int i = 0; i < n; i++) {
+                        map.put(i, i);
+                    }
+                    // die keySet-Sicht kann nicht einfügen -> zurücksetzen über die Map
+                    return new Target(map.sequencedKeySet(), v -> map.putFirst(v, v), v -> map.putLast(v, v));
+                }),
+                new Impl("TreeSet", n -> {
+                    TreeSet<Integer> set = new TreeSet<>(range(0, n));
+                    return new Target(set, set::add, set::add);
+                }));
+
+        List<String> names = List.of("addFirst", "addLast", "removeFirst", "removeLast",
+                "getFirst", "getLast", "reversedIteration");
+        List<Operation> operations = List.of(addFirst(), addLast(), removeFirst(), removeLast(),
+                getFirst(), getLast(), reversedIteration());
+
+        System.out.println("collection,operation,size,nsPerOp,allocatedBytesPerOp,timerOverheadNsPerBatch");
+        for (int size = 10; size <= maxSize; size *= 10) {
+            frontValues = new Integer[MAX_ADDS_PER_BATCH];
+            backValues = new Integer[MAX_ADDS_PER_BATCH];
+            for (int i = 0; i < MAX_ADDS_PER_BATCH; i++) {
+                frontValues[i] = -1 - i;
+                backValues[i] = size + i;
+            }
+            for (Impl impl : impls) {
+                Target target = impl.filled().apply(size);
+                for (int i = 0; i < operations.size(); i++) {
+                    measure(impl.name(), names.get(i), target, size, operations.get(i));
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Operationen
+    // ------------------------------------------------------------
+
+    static Operation addFirst() {
+        return new Operation() {
+            public void run(Target t, int size, int k) {
+                for (int i = 0; i < k; i++) {
+                    t.collection().addFirst(frontValues[i]);
+                }
+            }
+
+            public void restore(Target t, int size, int k) {
+                removeFront(t.collection(), k);
+            }
+
+            public int maxBatch(int size) {
+                return sizeChangingBatch(size);
+            }
+        };
+    }
+
+    static Operation addLast() {
+        return new Operation() {
+            public void run(Target t, int size, int k) {
+                for (int i = 0; i < k; i++) {
+                    t.collection().addLast(backValues[i]);
+                }
+            }
+
+            public void restore(Target t, int size, int k) {
+                removeBack(t.collection(), k);
+            }
+
+            public int maxBatch(int size) {
+                return sizeChangingBatch(size);
+            }
+        };
+    }
+
+    static Operation removeFirst() {
+        return new Operation() {
+            public void run(Target t, int size, int k) {
+                long sum = 0;
+                for (int i = 0; i < k; i++) {
+                    sum += t.collection().removeFirst();
+                }
+                sink = sum;
+            }
+
+            public void restore(Target t, int size, int k) {
+                if (t.collection() instanceof List<Integer> list) {
+                    list.addAll(0, range(0, k)); // ein einziges Verschieben
+                } else {
+                    for (int v = k - 1; v >= 0; v--) {
+                        t.restoreFirst().accept(v);
+                    }
+                }
+            }
+
+            public int maxBatch(int size) {
+                return sizeChangingBatch(size);
+            }
+        };
+    }
+
+    static Operation removeLast() {
+        return new Operation() {
+            public void run(Target t, int size, int k) {
+                long sum = 0;
+                for (int i = 0; i < k; i++) {
+                    sum += t.collection().removeLast();
+                }
+                sink = sum;
+            }
+
+            public void restore(Target t, int size, int k) {
+                if (t.collection() instanceof List<Integer> list) {
+                    list.addAll(range(size - k, size));
+                } else {
+                    for (int v = size - k; v < size; v++) {
+                        t.restoreLast().accept(v);
+                    }
+                }
+            }
+
+            public int maxBatch(int size) {
+                return sizeChangingBatch(size);
+            }
+        };
+    }
+
+    static Operation getFirst() {
+        return (t, size, k) -> {
+            long sum = 0;
+            for (int i = 0; i < k; i++) {
+                sum += t.collection().getFirst() + barrier;
+            }
+            sink = sum;
+        };
+    }
+
+    static Operation getLast() {
+        return (t, size, k) -> {
+            long sum = 0;
+            for (int i = 0; i < k; i++) {
+                sum += t.collection().getLast() + barrier;
+            }
+            sink = sum;
+        };
+    }
+
+    // k komplette Durchläufe über reversed(); Kosten pro Element
+    static Operation reversedIteration() {
+        return new Operation() {
+            public void run(Target t, int size, int k) {
+                long sum = 0;
+                for (int i = 0; i < k; i++) {
+                    for (Integer value : t.collection().reversed()) {
+                        sum += value;
+                    }
+                }
+                sink = sum;
+            }
+
+            public int maxBatch(int size) {
+                return Math.max(1, 1_000_000 / size);
+            }
+
+            public int elementsPerOp(int size) {
+                return size;
+            }
+        };
+    }
+
+    // ------------------------------------------------------------
+    // Messung
+    // ------------------------------------------------------------
+
+    static void measure(String collection, String operation, Target target, int size, Operation op) {
+        try {
+            op.run(target, size, 1);
+            op.restore(target, size, 1);
+        } catch (UnsupportedOperationException e) {
+            System.out.printf("%s,%s,%d,n/a,n/a,n/a%n", collection, operation, size);
+            return;
+        }
+        run(target, size, op, WARMUP_NANOS);
+        long[] result = run(target, size, op, MEASURE_NANOS);
+        double ops = (double) result[2] * op.elementsPerOp(size);
+        double nanos = Math.max(0, result[0] - result[3] * result[4]); // abzüglich Timer-Overhead aller Batches
+        System.out.printf("%s,%s,%d,%.2f,%.1f,%d%n", collection, operation, size,
+                nanos / ops, result[1] / ops, result[3]);
+        if (target.collection().size() != size) {
+            throw new AssertionError(collection + " " + operation + ": size " + target.collection().size());
+        }
+    }
+
+    // liefert {gemessene ns, allokierte Bytes, Operationen, ns des schnellsten leeren Batches, Batches}
+    static long[] run(Target target, int size, Operation op, long budgetNanos) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        int maxBatch = op.maxBatch(size);
+        int k = 1;
+        long nanos = 0, allocated = 0, count = 0, emptyNanos = Long.MAX_VALUE, batches = 0;
+        while (nanos < budgetNanos) {
+            long a0 = threads.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            op.run(target, size, k);
+            long elapsed = System.nanoTime() - t0;
+            allocated += threads.getThreadAllocatedBytes(threadId) - a0;
+            nanos += elapsed;
+            count += k;
+            batches++;
+            op.restore(target, size, k);
+            // gleicher Pfad ohne Operation: nanoTime()-Paar + Aufruf (im selben kompilierten Code)
+            long e0 = System.nanoTime();
+            op.run(target, size, 0);
+            emptyNanos = Math.min(emptyNanos, System.nanoTime() - e0);
+            if (elapsed < 1_000_000 && k < maxBatch) {
+                k = Math.min(maxBatch, k * 2);
+            }
+        }
+        return new long[]{nanos, allocated, count, emptyNanos, batches};
+    }
+
+    // ------------------------------------------------------------
+
+    // Batch-Grenze für Operationen, die die Größe ändern
+    static int sizeChangingBatch(int size) {
+        return Math.max(1, Math.min(MAX_ADDS_PER_BATCH, size / MAX_SIZE_CHANGE_DIVISOR));
+    }
+
+    static Target of(SequencedCollection<Integer> collection) {
+        return new Target(collection, collection::addFirst, collection::addLast);
+    }
+
+    static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    static void removeFront(SequencedCollection<Integer> c, int k) {
+        if (c instanceof List<Integer> list) {
+            list.subList(0, k).clear();
+        } else {
+            for (int i = 0; i < k; i++) {
+                c.removeFirst();
+            }
+        }
+    }
+
+    static void removeBack(SequencedCollection<Integer> c, int k) {
+        if (c instanceof List<Integer> list) {
+            list.subList(list.size() - k, list.size()).clear();
+        } else {
+            for (int i = 0; i < k; i++) {
+                c.removeLast();
+            }
+        }
+    }
+}
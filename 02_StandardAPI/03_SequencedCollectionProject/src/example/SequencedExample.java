@@ -30,8 +30,14 @@ public class SequencedExample {
         System.out.println("Original SequencedList: " + seqList);
 
         // letztes Element löschen (Java 21: removeLast())
+        // gleiche Kosten wie remove(size - 1); was die Methoden auf anderen
+        // Collections kosten (z. B. removeFirst() auf ArrayList = O(n)):
+        // siehe SequencedCollectionBenchmark
         seqList.removeLast();
 
         System.out.println("Nach removeLast():      " + seqList);
+
+        // Für große Zahlenfolgen ohne Boxing: IntSequence / LongSequence / DoubleSequence
+        // (gleiche first/last/reversed()-Semantik, siehe PrimitiveSequenceBenchmark)
     }
 }
@@ -0,0 +1,374 @@
+package example;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/*
+ * Nebenläufiger LRU-Cache aus mehreren SequencedMaps (siehe API.md, SequencedMap).
+ *
+ * Ein einzelner LinkedHashMap(accessOrder = true) hinter einem Lock wäre ein globaler
+ * Flaschenhals: schon get() verändert die Reihenfolge und braucht daher das Schreib-Lock.
+ *
+ * Aufbau:
+ *  - Schlüssel werden per Hash auf N Segmente verteilt (N = Zweierpotenz)
+ *  - jedes Segment: LinkedHashMap in Einfügereihenfolge + StampedLock (Lese-/Schreib-Lock)
+ *      firstEntry()      = am längsten nicht benutzt
+ *      putLast(k, v)     = k wird zum zuletzt benutzten Eintrag
+ *      pollFirstEntry()  = Verdrängung
+ *  - get() nimmt nur das Lese-Lock und NOTIERT den Zugriff in einem kleinen
+ *    Ringpuffer; umsortiert wird gesammelt (mit tryLock bzw. beim nächsten Schreiben)
+ *  - der Puffer ist verlustbehaftet: ist er voll, gehen Zugriffe verloren ->
+ *    die Reihenfolge ist ein (sehr gutes) Näherungs-LRU
+ *  - Verdrängung nach Anzahl oder nach Gewicht (weigher). Die Grenze gilt PRO SEGMENT:
+ *    maximumWeight wird auf die Segmente aufgeteilt (Summe = maximumWeight, höchstens
+ *    maximumWeight Segmente), ein volles Segment verdrängt also, auch wenn andere
+ *    Segmente noch Platz hätten
+ *  - computeIfAbsent lädt AUSSERHALB des Locks; ein Platzhalter pro Schlüssel sorgt
+ *    dafür, dass gleichzeitige Aufrufer für denselben Schlüssel auf dieses eine Laden warten
+ *
+ * Vorteile:
+ *  - Lesezugriffe blockieren sich gegenseitig nicht
+ *  - Schreibzugriffe auf verschiedene Segmente laufen parallel
+ * Nachteile:
+ *  - LRU nur pro Segment und nur näherungsweise
+ *  - Gesamtgrenze nur als Summe der Segment-Grenzen, kein globales LRU
+ */
+public class SequencedLruCache<K, V> {
+
+    private static final int ACCESS_BUFFER_SIZE = 64;
+
+    // Platzhalter für einen Schlüssel, der gerade geladen wird
+    private record Loading<V>(Thread loader, CompletableFuture<V> result) {}
+
+    public record Stats(long hits, long misses, long evictions, long size, long weight) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%,d, misses=%,d (Trefferquote %.1f%%), evictions=%,d, size=%,d, weight=%,d",
+                    hits, misses, hitRate() * 100, evictions, size, weight);
+        }
+    }
+
+    private final class Segment {
+        final StampedLock lock = new StampedLock(); // nicht reentrant
+        final SequencedMap<K, V> map = new LinkedHashMap<>(); // Einfügereihenfolge = LRU-Reihenfolge
+        final AtomicReferenceArray<Object> accesses = new AtomicReferenceArray<>(ACCESS_BUFFER_SIZE);
+        final AtomicInteger accessCount = new AtomicInteger();
+        final long maxWeight;
+        long weight; // nur unter Schreib-Lock
+        final Map<K, Loading<V>> loading = new HashMap<>(); // nur unter Schreib-Lock
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        V get(K key) {
+            V value;
+            long stamp = lock.readLock();
+            try {
+                value = map.get(key); // Einfügereihenfolge -> get() ändert nichts
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            if (value != null) {
+                recordAccess(key);
+            }
+            return value;
+        }
+
+        void recordAccess(K key) {
+            // Slot per CAS reservieren; der Zähler bleibt bei ACCESS_BUFFER_SIZE stehen
+            // (ein getAndIncrement liefe bei vielen verlorenen Zugriffen irgendwann über)
+            int slot;
+            do {
+                slot = accessCount.get();
+                if (slot >= ACCESS_BUFFER_SIZE) {
+                    tryDrainAccesses(); // Puffer voll -> dieser Zugriff geht verloren
+                    return;
+                }
+            } while (!accessCount.compareAndSet(slot, slot + 1));
+            accesses.lazySet(slot, key);
+            if (slot == ACCESS_BUFFER_SIZE - 1) {
+                tryDrainAccesses();
+            }
+        }
+
+        // wer das Lock sofort bekommt, sortiert um; alle anderen lesen weiter
+        void tryDrainAccesses() {
+            long stamp = lock.tryWriteLock();
+            if (stamp != 0) {
+                try {
+                    drainAccesses();
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+        }
+
+        // nur unter Schreib-Lock
+        void drainAccesses() {
+            int count = Math.min(accessCount.get(), ACCESS_BUFFER_SIZE);
+            for (int i = 0; i < count; i++) {
+                @SuppressWarnings("unchecked")
+                K key = (K) accesses.getAndSet(i, null);
+                if (key != null) {
+                    V value = map.get(key);
+                    if (value != null) {
+                        map.putLast(key, value); // zum zuletzt benutzten Eintrag machen
+                    }
+                }
+            }
+            accessCount.set(0);
+        }
+
+        V put(K key, V value) {
+            long stamp = lock.writeLock();
+            try {
+                drainAccesses();
+                V old = map.putLast(key, value);
+                weight += weigher.applyAsLong(key, value) - (old == null ? 0 : weigher.applyAsLong(key, old));
+                evictIfNeeded();
+                return old;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+            V value = get(key);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            Loading<V> mine = null;
+            Loading<V> other;
+            long stamp = lock.writeLock();
+            try {
+                value = map.get(key); // ein anderer Thread war evtl. schneller
+                if (value != null) {
+                    hits.increment();
+                    map.putLast(key, value);
+                    return value;
+                }
+                other = loading.get(key);
+                if (other == null) {
+                    mine = new Loading<>(Thread.currentThread(), new CompletableFuture<>());
+                    loading.put(key, mine);
+                    misses.increment();
+                } else {
+                    hits.increment(); // lädt schon jemand -> mitwarten statt selbst laden
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            if (other != null) {
+                if (other.loader() == Thread.currentThread()) {
+                    throw new IllegalStateException("recursive computeIfAbsent for key " + key);
+                }
+                return await(other.result());
+            }
+
+            // Laden ohne Lock: get() und andere Schlüssel dieses Segments warten nicht darauf
+            try {
+                value = loader.apply(key);
+            } catch (Throwable t) {
+                stamp = lock.writeLock();
+                try {
+                    loading.remove(key, mine);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                mine.result().completeExceptionally(t);
+                throw t;
+            }
+
+            // nur das Einfügen läuft unter dem Schreib-Lock
+            stamp = lock.writeLock();
+            try {
+                // remove()/invalidateAll() während des Ladens -> Ergebnis nicht mehr einfügen
+                if (loading.remove(key, mine) && value != null) {
+                    V existing = map.get(key);
+                    if (existing != null) {
+                        value = existing; // put() während des Ladens gewinnt
+                    } else {
+                        drainAccesses();
+                        map.putLast(key, value);
+                        weight += weigher.applyAsLong(key, value);
+                        evictIfNeeded();
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            mine.result().complete(value);
+            return value;
+        }
+
+        V remove(K key) {
+            long stamp = lock.writeLock();
+            try {
+                loading.remove(key);
+                V old = map.remove(key);
+                if (old != null) {
+                    weight -= weigher.applyAsLong(key, old);
+                }
+                return old;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                map.clear();
+                loading.clear();
+                weight = 0;
+                drainAccesses();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void evictIfNeeded() {
+            // der gerade geschriebene Eintrag bleibt stehen, auch wenn er allein zu schwer ist
+            while (weight > maxWeight && map.size() > 1) {
+                Map.Entry<K, V> eldest = map.pollFirstEntry();
+                weight -= weigher.applyAsLong(eldest.getKey(), eldest.getValue());
+                evictions.increment();
+            }
+        }
+    }
+
+    private final Segment[] segments;
+    private final int mask;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /*
+     * Begrenzung nach Anzahl Einträgen.
+     */
+    public SequencedLruCache(long maximumSize) {
+        this(maximumSize, (k, v) -> 1, defaultSegments());
+    }
+
+    /*
+     * Begrenzung nach Gewicht, z. B. (k, v) -> v.length für byte[]-Werte.
+     */
+    public SequencedLruCache(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher, int segments) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("maximumWeight must be >= 1");
+        }
+        if (segments < 1 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("segments must be a power of two");
+        }
+        // jedes Segment braucht mindestens Gewicht 1 -> höchstens maximumWeight Segmente
+        segments = (int) Math.min(segments, Long.highestOneBit(maximumWeight));
+        this.weigher = weigher;
+        this.mask = segments - 1;
+        @SuppressWarnings("unchecked")
+        Segment[] array = (Segment[]) new SequencedLruCache<?, ?>.Segment[segments];
+        // Rest gleichmäßig verteilen, damit die Summe genau maximumWeight ist
+        long perSegment = maximumWeight / segments;
+        long remainder = maximumWeight % segments;
+        for (int i = 0; i < segments; i++) {
+            array[i] = new Segment(perSegment + (i < remainder ? 1 : 0));
+        }
+        this.segments = array;
+    }
+
+    // 4 Segmente pro Kern, auf die nächste Zweierpotenz aufgerundet
+    private static int defaultSegments() {
+        int n = Runtime.getRuntime().availableProcessors() * 4;
+        return Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    public V get(K key) {
+        V value = segmentFor(key).get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("key and value must not be null");
+        }
+        return segmentFor(key).put(key, value);
+    }
+
+    /*
+     * Der Loader läuft ohne Lock; gleichzeitige Aufrufe für denselben Schlüssel warten
+     * auf sein Ergebnis (bzw. seine Exception). Der Loader darf den Cache benutzen, nur
+     * nicht denselben Schlüssel wieder laden (IllegalStateException). Warten zwei Loader
+     * gegenseitig auf ihre Schlüssel, blockieren sie sich – wie bei ConcurrentHashMap.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        return segmentFor(key).computeIfAbsent(key, loader);
+    }
+
+    public V remove(K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    // Ergebnis eines fremden Ladevorgangs; dessen Exception unverpackt weiterwerfen
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) {
+                throw r;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public Stats stats() {
+        long size = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.map.size();
+                weight += segment.weight;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+}
@@ -0,0 +1,363 @@
+package main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import main.RecordCreationDemo.Person;
+
+/*
+ * Massen-Einlesen von Person-Records aus CSV/TSV-Dateien ("name<trenner>alter").
+ *
+ * Ablauf:
+ *  1) Datei in Chunks (Standard 64 MB) teilen, Grenzen auf den nächsten Zeilenanfang schieben
+ *  2) jeden Chunk einzeln per mmap einblenden (MappedByteBuffer, max. 2 GB je Chunk ->
+ *     beliebig große Dateien ohne Preview-API)
+ *  3) Chunks parallel parsen: Felder direkt auf den Bytes, kein String pro Zeile –
+ *     nur der Name wird (als Komponente von Person) zum String
+ *  4) Person entsteht über den kanonischen Konstruktor -> dieselbe Validierung wie überall
+ *  5) fehlerhafte Zeilen werden mit Zeilennummer gesammelt, das Einlesen läuft weiter
+ *
+ * Zeilennummern: jeder Chunk zählt lokal, nach dem Einlesen werden sie über die
+ * Zeilenzahlen der vorherigen Chunks zu globalen Nummern verschoben.
+ *
+ * Bewusst NICHT unterstützt: Anführungszeichen/Escapes im CSV (Namen enthalten keinen Trenner).
+ *
+ * Vorteile:
+ *  - kein Kopieren der Datei in den Heap, das Betriebssystem liest voraus
+ *  - skaliert mit der Anzahl Kerne (Chunks sind unabhängig)
+ *  - ein Fehler in Zeile 3.000.000 kostet nicht den ganzen Lauf
+ * Nachteile:
+ *  - der Sink wird aus mehreren Threads aufgerufen (muss threadsicher sein)
+ *  - Reihenfolge der Records nur bei readAll() garantiert
+ */
+public final class PersonIngestion {
+
+    public record Failure(long line, String reason, String content) {
+        @Override
+        public String toString() {
+            return "Zeile " + line + ": " + reason + " [" + content + "]";
+        }
+    }
+
+    public record Report(int parallelism, long bytes, long lines, long records,
+                         long failureCount, List<Failure> failures, long nanos) {
+
+        public double mbPerSecond() {
+            return bytes / 1e6 / (nanos / 1e9);
+        }
+
+        public double recordsPerSecond() {
+            return records / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d Threads: %,d Zeilen, %,d Records, %,d Fehler, %.1f MB/s, %,.0f Records/s",
+                    parallelism, lines, records, failureCount, mbPerSecond(), recordsPerSecond());
+        }
+    }
+
+    public record Result(List<Person> persons, Report report) {}
+
+    private static final int MAX_CONTENT_IN_FAILURE = 80;
+
+    private final byte separator;
+    private final boolean skipHeader;
+    private final int parallelism;
+    private final long chunkSize;
+    private final int maxFailures;
+
+    private PersonIngestion(byte separator, boolean skipHeader, int parallelism, long chunkSize, int maxFailures) {
+        this.separator = separator;
+        this.skipHeader = skipHeader;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.maxFailures = maxFailures;
+    }
+
+    public static PersonIngestion csv() {
+        return new PersonIngestion((byte) ',', false, Runtime.getRuntime().availableProcessors(), 64 << 20, 1000);
+    }
+
+    public static PersonIngestion tsv() {
+        return csv().withSeparator('\t');
+    }
+
+    public PersonIngestion withSeparator(char separator) {
+        if (separator > 0x7F || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("separator must be a single ASCII character");
+        }
+        return new PersonIngestion((byte) separator, skipHeader, parallelism, chunkSize, maxFailures);
+    }
+
+    public PersonIngestion withHeader(boolean skipHeader) {
+        return new PersonIngestion(separator, skipHeader, parallelism, chunkSize, maxFailures);
+    }
+
+    public PersonIngestion withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        return new PersonIngestion(separator, skipHeader, parallelism, chunkSize, maxFailures);
+    }
+
+    public PersonIngestion withChunkSize(long chunkSize) {
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("chunkSize must be in 1..1GB");
+        }
+        return new PersonIngestion(separator, skipHeader, parallelism, chunkSize, maxFailures);
+    }
+
+    // gespeicherte Fehler begrenzen (gezählt werden alle)
+    public PersonIngestion withMaxFailures(int maxFailures) {
+        return new PersonIngestion(separator, skipHeader, parallelism, chunkSize, maxFailures);
+    }
+
+    /*
+     * Alle gültigen Records in Dateireihenfolge.
+     */
+    public Result readAll(Path file) throws IOException {
+        // jeder Chunk füllt seine eigene Liste; gelesen wird erst nach Future.get()
+        List<List<Person>> perChunk = new ArrayList<>();
+        Report report = run(file, chunk -> {
+            List<Person> persons = new ArrayList<>();
+            perChunk.add(persons);
+            return persons::add;
+        });
+        List<Person> all = new ArrayList<>((int) report.records());
+        perChunk.forEach(all::addAll);
+        return new Result(all, report);
+    }
+
+    /*
+     * Streaming: sink wird parallel aus den Worker-Threads aufgerufen.
+     */
+    public Report ingest(Path file, Consumer<? super Person> sink) throws IOException {
+        return run(file, chunk -> sink);
+    }
+
+    // wird vor dem Start der Worker für jeden Chunk der Reihe nach aufgerufen
+    private interface SinkFactory {
+        Consumer<? super Person> forChunk(int chunk);
+    }
+
+    // Zwischenergebnis eines Chunks, Zeilennummern in failures sind noch lokal
+    private record ChunkResult(long lines, long records, long failureCount, List<Failure> failures) {}
+
+    private Report run(Path file, SinkFactory sinks) throws IOException {
+        long t0 = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<long[]> chunks = split(channel, size);
+            List<Consumer<? super Person>> chunkSinks = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                chunkSinks.add(sinks.forChunk(i));
+            }
+
+            List<ChunkResult> results = new ArrayList<>(chunks.size());
+            try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+                List<Future<ChunkResult>> futures = new ArrayList<>(chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    long[] range = chunks.get(i);
+                    Consumer<? super Person> sink = chunkSinks.get(i);
+                    boolean first = i == 0;
+                    futures.add(pool.submit(() -> {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                range[0], range[1] - range[0]);
+                        return parse(buffer, first && skipHeader, sink);
+                    }));
+                }
+                for (Future<ChunkResult> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("ingestion failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("ingestion interrupted", e);
+            }
+
+            // lokale Zeilennummern -> globale
+            long lineOffset = 0, lines = 0, records = 0, failureCount = 0;
+            List<Failure> failures = new ArrayList<>();
+            for (ChunkResult r : results) {
+                for (Failure f : r.failures()) {
+                    if (failures.size() < maxFailures) {
+                        failures.add(new Failure(lineOffset + f.line(), f.reason(), f.content()));
+                    }
+                }
+                lineOffset += r.lines();
+                lines += r.lines();
+                records += r.records();
+                failureCount += r.failureCount();
+            }
+            return new Report(parallelism, size, lines, records, failureCount,
+                    List.copyOf(failures), System.nanoTime() - t0);
+        }
+    }
+
+    // [start, end) je Chunk; jede Grenze liegt direkt hinter einem '\n'
+    private List<long[]> split(FileChannel channel, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            end = nextLineStart(channel, end, size, probe);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("line longer than 2 GB near offset " + start);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe)
+            throws IOException {
+        if (position >= size || position == 0) {
+            return Math.min(position, size);
+        }
+        long pos = position - 1; // steht die Grenze schon hinter einem '\n'?
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    // ------------------------------------------------------------
+    // Parser: arbeitet direkt auf dem eingeblendeten Chunk
+    // ------------------------------------------------------------
+    private ChunkResult parse(ByteBuffer buffer, boolean skipFirstLine, Consumer<? super Person> sink) {
+        byte[] scratch = new byte[256]; // Name als Bytes, wächst bei Bedarf
+        List<Failure> failures = new ArrayList<>();
+        long failureCount = 0, records = 0;
+        long line = 0;
+        int end = buffer.limit();
+        int pos = 0;
+        while (pos < end) {
+            int lineStart = pos;
+            int sep = -1;
+            int separators = 0;
+            while (pos < end) {
+                byte b = buffer.get(pos);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == separator) {
+                    if (sep < 0) {
+                        sep = pos;
+                    }
+                    separators++;
+                }
+                pos++;
+            }
+            int lineEnd = pos;
+            pos++; // '\n' überspringen
+            line++;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if ((line == 1 && skipFirstLine) || lineEnd == lineStart) {
+                continue; // Kopfzeile / Leerzeile
+            }
+
+            String error = null;
+            Person person = null;
+            if (separators != 1) {
+                error = "expected 2 fields but found " + (separators + 1);
+            } else {
+                long age = parseAge(buffer, sep + 1, lineEnd);
+                if (age == Long.MIN_VALUE) {
+                    error = "age is not a valid integer";
+                } else {
+                    int nameLength = sep - lineStart;
+                    if (nameLength > scratch.length) {
+                        scratch = new byte[Math.max(nameLength, scratch.length * 2)];
+                    }
+                    buffer.get(lineStart, scratch, 0, nameLength);
+                    String name = new String(scratch, 0, nameLength, StandardCharsets.UTF_8);
+                    try {
+                        person = new Person(name, (int) age); // kanonischer Konstruktor validiert
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage();
+                    }
+                }
+            }
+            if (person != null) {
+                // außerhalb des try: eine IllegalArgumentException aus dem Sink ist kein Zeilenfehler
+                sink.accept(person);
+                records++;
+                continue;
+            }
+            // nur im Fehlerfall wird die Zeile zum String
+            if (failures.size() < maxFailures) {
+                failures.add(new Failure(line, error, content(buffer, lineStart, lineEnd)));
+            }
+            failureCount++;
+        }
+        return new ChunkResult(line, records, failureCount, failures);
+    }
+
+    // leeres Feld = unbekanntes Alter (-1); Long.MIN_VALUE = ungültig
+    private static long parseAge(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) == ' ') {
+            to--;
+        }
+        if (from == to) {
+            return -1;
+        }
+        boolean negative = buffer.get(from) == '-';
+        if (negative && ++from == to) {
+            return Long.MIN_VALUE;
+        }
+        if (to - from > 10) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private static String content(ByteBuffer buffer, int from, int to) {
+        int length = Math.min(to - from, MAX_CONTENT_IN_FAILURE);
+        byte[] bytes = new byte[length];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
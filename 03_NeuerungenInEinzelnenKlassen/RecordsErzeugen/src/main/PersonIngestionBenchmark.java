@@ -0,0 +1,100 @@
+package main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Durchsatz von PersonIngestion über verschiedene Thread-Anzahlen.
+ *
+ * Erzeugt eine CSV-Datei mit Kopfzeile und ca. 0,1 % fehlerhaften Zeilen
+ * (leerer Name, Alter < -1, kein Integer, falsche Feldanzahl) und liest sie mit
+ * 1, 2, 4, ... Threads bis zur Anzahl der Kerne ein (bestes von 3 Läufen).
+ * Die Datei liegt nach dem ersten Lauf im Page Cache – gemessen wird also das Parsen,
+ * nicht die Platte.
+ *
+ * Ausgabe als CSV: threads,mb,records,failures,ms,mbPerSecond,recordsPerSecond
+ *
+ * Start:  java main.PersonIngestionBenchmark [megabytes]
+ */
+public class PersonIngestionBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        Path file = Files.createTempFile("persons", ".csv");
+        try {
+            long lines = generate(file, megabytes * 1_000_000L);
+            System.out.printf("# %s: %,d Bytes, %,d Zeilen%n", file, Files.size(file), lines);
+
+            // Fehler mit Zeilennummern (kleine Chunks -> Nummern über Chunk-Grenzen hinweg)
+            PersonIngestion.Result result = PersonIngestion.csv().withHeader(true)
+                    .withChunkSize(1 << 20).withMaxFailures(5).readAll(file);
+            System.out.println("# " + result.report());
+            result.report().failures().forEach(f -> System.out.println("#   " + f));
+            System.out.println("# erster/letzter Record: " + result.persons().getFirst()
+                    + " / " + result.persons().getLast());
+
+            System.out.println("threads,mb,records,failures,ms,mbPerSecond,recordsPerSecond");
+            for (int threads : threadCounts()) {
+                PersonIngestion ingestion = PersonIngestion.csv().withHeader(true).withParallelism(threads);
+                PersonIngestion.Report best = null;
+                for (int run = 0; run < 4; run++) { // erster Lauf = Warmup
+                    LongAdder ages = new LongAdder();
+                    PersonIngestion.Report report = ingestion.ingest(file, p -> ages.add(p.age()));
+                    if (run > 0 && (best == null || report.nanos() < best.nanos())) {
+                        best = report;
+                    }
+                }
+                System.out.printf("%d,%.0f,%d,%d,%.0f,%.1f,%.0f%n", threads, best.bytes() / 1e6,
+                        best.records(), best.failureCount(), best.nanos() / 1e6,
+                        best.mbPerSecond(), best.recordsPerSecond());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    static List<Integer> threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            counts.add(t);
+        }
+        counts.add(cores);
+        return counts;
+    }
+
+    static long generate(Path file, long bytes) throws IOException {
+        String[] firstNames = {"Alice", "Bob", "Carol", "Dave", "Eve", "Frank", "Grace", "Jürgen", "Zoë"};
+        String[] lastNames = {"Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner"};
+        SplittableRandom random = new SplittableRandom(21);
+        long written = 0;
+        long lines = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("name,age\n");
+            lines++;
+            while (written < bytes) {
+                String line = switch (random.nextInt(4000)) {
+                    case 0 -> " ," + random.nextInt(90);
+                    case 1 -> "Mallory," + -random.nextInt(2, 100);
+                    case 2 -> "Oscar,vierzig";
+                    case 3 -> "Trent";
+                    default -> firstNames[random.nextInt(firstNames.length)] + " "
+                            + lastNames[random.nextInt(lastNames.length)] + ","
+                            + (random.nextInt(50) == 0 ? "" : String.valueOf(random.nextInt(100)));
+                };
+                out.write(line);
+                out.write('\n');
+                written += line.length() + 1;
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,132 @@
+package main;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import main.RecordCreationDemo.Person;
+import main.RecordCreationDemo.Result;
+import main.RecordCreationDemo.User;
+
+/*
+ * Round-Trip (kodieren + dekodieren) für die Records aus RecordCreationDemo:
+ *  - oos:         ObjectOutputStream / ObjectInputStream (pro Nachricht ein neuer Stream)
+ *  - handwritten: von Hand geschriebener Codec mit denselben Bausteinen wie RecordCodec
+ *  - recordCodec: RecordCodec (MethodHandles, generisch)
+ *
+ * Gemessen: ns pro Round-Trip, Bytes pro Nachricht, allokierte Bytes pro Round-Trip
+ * (über com.sun.management.ThreadMXBean, nur im messenden Thread).
+ *
+ * ObjectOutputStream braucht Serializable – die Records aus RecordCreationDemo sind es nicht.
+ * Dafür gibt es hier eine inhaltsgleiche Kopie (SerializablePerson).
+ *
+ * Start:  java main.RecordCodecBenchmark [iterationen]
+ */
+public class RecordCodecBenchmark {
+
+    record SerializablePerson(String name, int age) implements Serializable {}
+
+    interface Codec<T> {
+        // gibt die Anzahl geschriebener Bytes zurück
+        int roundTrip(T value);
+    }
+
+    static volatile Object sink;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Person person = new Person("Alice Müller", 30);
+        ByteBuffer buffer = ByteBuffer.allocate(1024); // wird für jede Nachricht wiederverwendet
+
+        // Validierung läuft auch beim Dekodieren
+        RecordCodec<Person> personCodec = RecordCodec.of(Person.class);
+        ByteBuffer invalid = ByteBuffer.allocate(64);
+        RecordCodec.writeString(invalid, " ");
+        RecordCodec.writeVarLong(invalid, 42);
+        try {
+            personCodec.decode(invalid.flip());
+        } catch (IllegalArgumentException e) {
+            System.out.println("# Dekodieren ungültiger Daten: " + e.getMessage());
+        }
+
+        System.out.println("type,variant,nsPerRoundTrip,bytesPerMessage,allocatedBytesPerRoundTrip");
+
+        SerializablePerson serializable = new SerializablePerson(person.name(), person.age());
+        measure("Person", "oos", iterations / 10, serializable, RecordCodecBenchmark::oosRoundTrip);
+        measure("Person", "handwritten", iterations, person, p -> {
+            buffer.clear();
+            RecordCodec.writeString(buffer, p.name());
+            RecordCodec.writeVarLong(buffer, p.age());
+            int size = buffer.flip().remaining();
+            sink = new Person(RecordCodec.readString(buffer), (int) RecordCodec.readVarLong(buffer));
+            return size;
+        });
+        measure("Person", "recordCodec", iterations, person, codecRoundTrip(personCodec, buffer));
+
+        measure("User", "recordCodec", iterations, new User("u-1", "Frank"),
+                codecRoundTrip(RecordCodec.of(User.class), buffer));
+        measure("Result", "recordCodec", iterations, new Result(true, "Alles OK"),
+                codecRoundTrip(RecordCodec.of(Result.class), buffer));
+    }
+
+    static <R extends Record> Codec<R> codecRoundTrip(RecordCodec<R> codec, ByteBuffer buffer) {
+        return value -> {
+            buffer.clear();
+            codec.encode(value, buffer);
+            int size = buffer.flip().remaining();
+            sink = codec.decode(buffer);
+            return size;
+        };
+    }
+
+    static int oosRoundTrip(Object value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                sink = in.readObject();
+            }
+            return bytes.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static <T> void measure(String type, String variant, int iterations, T value, Codec<T> codec) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        int size = 0;
+        for (int i = 0; i < iterations; i++) { // Warmup
+            size = codec.roundTrip(value);
+        }
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < 5; round++) {
+            long a0 = threads.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                codec.roundTrip(value);
+            }
+            long elapsed = System.nanoTime() - t0;
+            if (elapsed < best) {
+                best = elapsed;
+                allocated = threads.getThreadAllocatedBytes(threadId) - a0;
+            }
+        }
+        System.out.printf("%s,%s,%.1f,%d,%.1f%n", type, variant, (double) best / iterations, size,
+                (double) allocated / iterations);
+    }
+}
@@ -95,6 +95,7 @@ public class RecordCreationDemo {
 
     /*
      * Typischer Einsatz als Rückgabewert (DTO)
+     * Binär über Service-Grenzen hinweg: siehe RecordCodec
      */
     public record Result(boolean success, String message) {}
 
@@ -0,0 +1,335 @@
+package main;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import main.RecordCreationDemo.Person;
+import main.RecordCreationDemo.User;
+
+/*
+ * Interner für wertartige Records: gleiche Records -> EINE kanonische Instanz.
+ *
+ * Wenn dieselben paar hunderttausend Person(name, age)-Kombinationen in
+ * hunderten Millionen Zeilen vorkommen, hält der Heap sonst jede Kopie
+ * (Record + Strings) einzeln.
+ *
+ * Aufbau:
+ *  - ConcurrentHashMap mit schwachen Einträgen (WeakReference):
+ *    wird eine kanonische Instanz nirgends mehr benutzt, darf der GC sie entfernen
+ *  - Schlüssel-Gleichheit = equals()/hashCode() des Records
+ *  - schneller Pfad: ConcurrentHashMap.get() ist lockfrei
+ *  - nur beim Verfehlen: putIfAbsent, Aufräumen der vom GC geleerten Einträge
+ *  - optional: String-Komponenten neuer Instanzen werden ebenfalls dedupliziert
+ *    (Person("Alice", 30) und User("u-1", "Alice") teilen sich dann den String)
+ *
+ * Die "gesparten Bytes" sind eine Schätzung (Objekt-Header + Felder + String-Inhalt),
+ * gemessen wird der Effekt im main() über den belegten Heap.
+ *
+ * Vorteile:
+ *  - Heap-Bedarf wächst mit der Anzahl VERSCHIEDENER Werte, nicht mit der Anzahl Zeilen
+ *  - Gleichheitsvergleiche können danach oft schon bei == enden
+ * Nachteile:
+ *  - jeder Aufruf kostet einen Hash-Lookup (und bei Verfehlen eine Allokation)
+ *  - nur sinnvoll bei vielen Wiederholungen, sonst reiner Overhead
+ */
+public class RecordInterner<R extends Record> {
+
+    // Schwacher Eintrag, merkt sich den Hash (der Record ist evtl. schon weg)
+    private static final class WeakEntry<T> extends WeakReference<T> {
+        final int hash;
+
+        WeakEntry(T referent, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            T value = get();
+            return value != null && other instanceof WeakEntry<?> entry && value.equals(entry.get());
+        }
+    }
+
+    // Such-Schlüssel: vergleicht den gesuchten Record mit dem Inhalt eines Eintrags
+    private record Probe(Object value) {
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof WeakEntry<?> entry && value.equals(entry.get());
+        }
+    }
+
+    /*
+     * Die eigentliche schwache Ablage – für Records und für Strings.
+     */
+    private static final class WeakPool<T> {
+        private final ConcurrentHashMap<Object, WeakEntry<T>> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        // null, wenn es noch keine (lebende) kanonische Instanz gibt
+        T lookup(T value) {
+            WeakEntry<T> entry = map.get(new Probe(value));
+            return entry == null ? null : entry.get();
+        }
+
+        T add(T value) {
+            purge();
+            WeakEntry<T> fresh = new WeakEntry<>(value, queue);
+            while (true) {
+                WeakEntry<T> existing = map.putIfAbsent(fresh, fresh);
+                if (existing == null) {
+                    return value;
+                }
+                T canonical = existing.get();
+                if (canonical != null) {
+                    return canonical; // ein anderer Thread war schneller
+                }
+                map.remove(existing, existing); // vom GC geleert -> ersetzen
+            }
+        }
+
+        // vom GC geleerte Einträge entfernen (Identitätsvergleich über equals)
+        void purge() {
+            Object stale;
+            while ((stale = queue.poll()) != null) {
+                map.remove(stale, stale);
+            }
+        }
+
+        int size() {
+            purge();
+            return map.size();
+        }
+    }
+
+    private static final WeakPool<String> STRINGS = new WeakPool<>();
+
+    private final WeakPool<R> pool = new WeakPool<>();
+    private final boolean deduplicateStrings;
+    private final Rebuilder rebuilder;
+    private final long recordBytes; // geschätzte Größe einer Instanz, einmal pro Typ berechnet
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public RecordInterner(Class<R> type, boolean deduplicateStrings) {
+        this.deduplicateStrings = deduplicateStrings;
+        this.rebuilder = new Rebuilder(type);
+        this.recordBytes = estimateBytes(type);
+    }
+
+    /*
+     * Liefert die kanonische Instanz zu value (evtl. value selbst).
+     */
+    public R intern(R value) {
+        lookups.increment();
+        R canonical = pool.lookup(value);
+        if (canonical != null) {
+            hits.increment();
+            bytesSaved.add(recordBytes + rebuilder.droppedStringBytes(value, canonical));
+            return canonical;
+        }
+        R candidate = deduplicateStrings ? rebuilder.withCanonicalStrings(value, bytesSaved) : value;
+        R result = pool.add(candidate);
+        if (result != candidate) {
+            hits.increment();
+            bytesSaved.add(recordBytes + rebuilder.droppedStringBytes(candidate, result));
+        }
+        return result;
+    }
+
+    /*
+     * Kanonischer String (gemeinsam für alle Interner dieser Klasse).
+     */
+    static String canonicalString(String s, LongAdder bytesSaved) {
+        String canonical = STRINGS.lookup(s);
+        if (canonical == null) {
+            canonical = STRINGS.add(s);
+        }
+        if (canonical != s) {
+            bytesSaved.add(stringBytes(s));
+        }
+        return canonical;
+    }
+
+    // ------------------------------------------------------------
+    // Zugriff auf die Komponenten: Accessoren + kanonischer Konstruktor als MethodHandles
+    // ------------------------------------------------------------
+    private static final class Rebuilder {
+        private final MethodHandle[] accessors;   // (Record)Object
+        private final boolean[] isString;
+        private final MethodHandle constructor;   // (Object[])Record
+        private final Class<?> type;
+
+        Rebuilder(Class<?> type) {
+            this.type = type;
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                RecordComponent[] components = type.getRecordComponents();
+                accessors = new MethodHandle[components.length];
+                isString = new boolean[components.length];
+                Class<?>[] parameterTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    parameterTypes[i] = components[i].getType();
+                    isString[i] = parameterTypes[i] == String.class;
+                    accessors[i] = lookup.unreflect(components[i].getAccessor())
+                            .asType(MethodType.methodType(Object.class, Record.class));
+                }
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Record.class, Object[].class));
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new IllegalArgumentException("cannot access record " + type.getName(), e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <R extends Record> R withCanonicalStrings(R value, LongAdder bytesSaved) {
+            try {
+                Object[] args = new Object[accessors.length];
+                boolean changed = false;
+                for (int i = 0; i < accessors.length; i++) {
+                    args[i] = accessors[i].invokeExact((Record) value);
+                    if (isString[i] && args[i] != null) {
+                        String canonical = canonicalString((String) args[i], bytesSaved);
+                        changed |= canonical != args[i];
+                        args[i] = canonical;
+                    }
+                }
+                return changed ? (R) type.cast((Record) constructor.invokeExact(args)) : value;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        // Strings des Duplikats, die nicht mit denen der kanonischen Instanz identisch sind
+        long droppedStringBytes(Record duplicate, Record canonical) {
+            try {
+                long bytes = 0;
+                for (int i = 0; i < accessors.length; i++) {
+                    if (isString[i]) {
+                        Object s = accessors[i].invokeExact(duplicate);
+                        if (s != null && s != accessors[i].invokeExact(canonical)) {
+                            bytes += stringBytes((String) s);
+                        }
+                    }
+                }
+                return bytes;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Statistik
+    // ------------------------------------------------------------
+
+    // grobe Schätzung mit Compressed Oops: Header 12 Byte, Referenz 4 Byte, auf 8 aufgerundet
+    static long estimateBytes(Class<? extends Record> type) {
+        long size = 12;
+        for (RecordComponent component : type.getRecordComponents()) {
+            Class<?> t = component.getType();
+            size += t == long.class || t == double.class ? 8 : t == boolean.class || t == byte.class ? 1
+                    : t == short.class || t == char.class ? 2 : 4;
+        }
+        return align(size);
+    }
+
+    // String-Objekt (24 Byte) + byte[] (16 Byte Header + Inhalt, Latin-1 angenommen)
+    static long stringBytes(String s) {
+        return 24 + align(16 + s.length());
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    public record Stats(long lookups, long hits, double hitRate, long canonicalInstances, long bytesSaved) {
+        @Override
+        public String toString() {
+            return String.format("lookups=%,d, hits=%,d (%.1f%%), canonical=%,d, gespart ca. %,d KB",
+                    lookups, hits, hitRate * 100, canonicalInstances, bytesSaved / 1024);
+        }
+    }
+
+    public Stats stats() {
+        long l = lookups.sum();
+        long h = hits.sum();
+        return new Stats(l, h, l == 0 ? 0 : (double) h / l, pool.size(), bytesSaved.sum());
+    }
+
+    // ------------------------------------------------------------
+    // Demo: 5 Mio. "eingelesene" Zeilen aus 100.000 verschiedenen Personen
+    // Start: java -Xmx2g main.RecordInterner [zeilen] [verschiedene]
+    // ------------------------------------------------------------
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        System.out.printf("Ohne Interner: %,d MB%n", ingest(rows, distinct, null, null) >> 20);
+
+        RecordInterner<Person> persons = new RecordInterner<>(Person.class, true);
+        RecordInterner<User> users = new RecordInterner<>(User.class, true);
+        long t0 = System.nanoTime();
+        long used = ingest(rows, distinct, persons, users);
+        System.out.printf("Mit Interner:  %,d MB (%d ms)%n", used >> 20, (System.nanoTime() - t0) / 1_000_000);
+        System.out.println("  Person: " + persons.stats());
+        System.out.println("  User:   " + users.stats());
+    }
+
+    // liest "Zeilen" ein und hält sie fest (wie ein Ingestion-Puffer); liefert den belegten Heap
+    private static long ingest(int rows, int distinct, RecordInterner<Person> persons, RecordInterner<User> users) {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Object> retained = new ArrayList<>(rows * 2);
+        long before = usedHeap();
+        for (int i = 0; i < rows; i++) {
+            int k = random.nextInt(distinct);
+            // new String(...) wie beim Parsen: jede Zeile hat eigene String-Objekte
+            String name = new String("Kunde-" + k);
+            Person person = new Person(name, k % 90);
+            User user = new User(new String("u-" + k), new String(name));
+            retained.add(persons == null ? person : persons.intern(person));
+            retained.add(users == null ? user : users.intern(user));
+        }
+        long used = usedHeap() - before;
+        if (retained.size() != rows * 2) {
+            throw new AssertionError();
+        }
+        return used;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,338 @@
+package main;
+
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+import java.util.stream.IntStream;
+
+import main.PatternMatchingRecordDemo.Circle;
+import main.PatternMatchingRecordDemo.Rectangle;
+import main.PatternMatchingRecordDemo.Shape;
+import main.PatternMatchingRecordDemo.Square;
+
+/*
+ * Spaltenorientierte Ablage für viele Shapes ("Structure of Arrays").
+ *
+ * PatternMatchingRecordDemo rechnet pro Objekt:
+ *  - jedes Record hat einen Objekt-Header (12–16 Byte) + Referenz in der Liste
+ *  - pro Element ein Typ-Switch, die Daten liegen verstreut im Heap
+ *
+ * Hier gibt es pro Record-Art eine Spalte mit primitiven double[]-Blöcken:
+ *  - Circle    -> radius[]
+ *  - Rectangle -> width[], height[]
+ *  - Square    -> side[]
+ * Massenoperationen sind einfache Schleifen über double[] – kein Header, kein Switch
+ * pro Element, sequentieller Speicherzugriff. Der JIT kann elementweise Schleifen
+ * (z.B. areas()) vektorisieren.
+ *
+ * Exhaustiveness, zweistufig:
+ *  - add(Shape) ist ein Pattern-Switch über das sealed interface Shape.
+ *    Kommt eine neue Shape-Art hinzu, meldet der Compiler nur diese Stelle.
+ *  - die Spalten bilden ein eigenes sealed interface Column, das von Shape nichts
+ *    weiß: die neue Spalte muss von Hand in permits und columns eingetragen werden.
+ *    Danach meldet der Compiler die Massenoperationen, die über Column switchen
+ *    (sum, areas). get(), bounds() und filter() greifen direkt auf die Spalten zu
+ *    und fallen dem Compiler nicht auf.
+ *
+ * Hinweis zu Summen: double-Additionen sind nicht assoziativ, deshalb vektorisiert
+ * C2 Summen-Schleifen nicht. Stattdessen 4 unabhängige Akkumulatoren (mehr
+ * Parallelität in der CPU-Pipeline). Das Ergebnis kann in den letzten Bits von der
+ * Objekt-Variante abweichen.
+ *
+ * Vorteile:
+ *  - etwa 8–16 Byte pro Shape statt ~40 Byte, cache-freundlich
+ *  - parallele Auswertung in Chunks ohne Synchronisation
+ * Nachteile:
+ *  - einzelne Shapes werden beim Auslesen wieder als Record erzeugt
+ *  - Reihenfolge über die Arten hinweg geht verloren (gruppiert nach Art)
+ */
+public class ColumnarShapeStore {
+
+    public enum Metric { AREA, PERIMETER }
+
+    // Chunk-Größe für parallele Auswertung: groß genug, dass sich ein Task lohnt
+    static final int CHUNK = 1 << 16;
+
+    // ------------------------------------------------------------
+    // Spalten
+    // ------------------------------------------------------------
+    sealed interface Column permits CircleColumn, RectangleColumn, SquareColumn {
+        int size();
+    }
+
+    static final class CircleColumn implements Column {
+        double[] radius = new double[16];
+        int size;
+
+        void add(double r) {
+            if (size == radius.length) {
+                radius = Arrays.copyOf(radius, size * 2);
+            }
+            radius[size++] = r;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    static final class RectangleColumn implements Column {
+        double[] width = new double[16];
+        double[] height = new double[16];
+        int size;
+
+        void add(double w, double h) {
+            if (size == width.length) {
+                width = Arrays.copyOf(width, size * 2);
+                height = Arrays.copyOf(height, size * 2);
+            }
+            width[size] = w;
+            height[size++] = h;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    static final class SquareColumn implements Column {
+        double[] side = new double[16];
+        int size;
+
+        void add(double s) {
+            if (size == side.length) {
+                side = Arrays.copyOf(side, size * 2);
+            }
+            side[size++] = s;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final CircleColumn circles = new CircleColumn();
+    private final RectangleColumn rectangles = new RectangleColumn();
+    private final SquareColumn squares = new SquareColumn();
+    private final Column[] columns = {circles, rectangles, squares};
+
+    public void add(Shape shape) {
+        switch (shape) {
+            case Circle(double r) -> circles.add(r);
+            case Rectangle(double w, double h) -> rectangles.add(w, h);
+            case Square(double s) -> squares.add(s);
+        }
+    }
+
+    public void addAll(Iterable<? extends Shape> shapes) {
+        for (Shape shape : shapes) {
+            add(shape);
+        }
+    }
+
+    public int size() {
+        return circles.size + rectangles.size + squares.size;
+    }
+
+    /*
+     * Einzelzugriff – erzeugt wieder ein Record. Indizes laufen über Circles, dann
+     * Rectangles, dann Squares.
+     */
+    public Shape get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index < circles.size) {
+            return new Circle(circles.radius[index]);
+        }
+        index -= circles.size;
+        if (index < rectangles.size) {
+            return new Rectangle(rectangles.width[index], rectangles.height[index]);
+        }
+        return new Square(squares.side[index - rectangles.size]);
+    }
+
+    // ------------------------------------------------------------
+    // Massenoperationen
+    // ------------------------------------------------------------
+
+    public double totalArea() {
+        return total(Metric.AREA);
+    }
+
+    public double totalPerimeter() {
+        return total(Metric.PERIMETER);
+    }
+
+    public double total(Metric metric) {
+        double sum = 0;
+        for (Column column : columns) {
+            sum += sum(column, metric, 0, column.size());
+        }
+        return sum;
+    }
+
+    /*
+     * Parallel in Chunks fester Größe. Die Chunk-Summen werden in fester Reihenfolge
+     * addiert -> das Ergebnis hängt nicht von der Thread-Verteilung ab.
+     */
+    public double parallelTotal(Metric metric) {
+        double sum = 0;
+        for (Column column : columns) {
+            int chunks = (column.size() + CHUNK - 1) / CHUNK;
+            double[] partial = new double[chunks];
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                    partial[c] = sum(column, metric, c * CHUNK, Math.min(column.size(), (c + 1) * CHUNK)));
+            for (double p : partial) {
+                sum += p;
+            }
+        }
+        return sum;
+    }
+
+    private static double sum(Column column, Metric metric, int from, int to) {
+        return switch (column) {
+            case CircleColumn c -> metric == Metric.AREA
+                    ? Math.PI * sumOfSquares(c.radius, from, to)
+                    : 2 * Math.PI * sum(c.radius, from, to);
+            case RectangleColumn r -> metric == Metric.AREA
+                    ? sumOfProducts(r.width, r.height, from, to)
+                    : 2 * (sum(r.width, from, to) + sum(r.height, from, to));
+            case SquareColumn s -> metric == Metric.AREA
+                    ? sumOfSquares(s.side, from, to)
+                    : 4 * sum(s.side, from, to);
+        };
+    }
+
+    /*
+     * Fläche jeder Shape in ein Ziel-Array (gleiche Reihenfolge wie get(index)).
+     * Elementweise Schleifen ohne Abhängigkeit zwischen Iterationen -> vektorisierbar.
+     */
+    public double[] areas() {
+        double[] out = new double[size()];
+        int offset = 0;
+        for (Column column : columns) {
+            switch (column) {
+                case CircleColumn c -> {
+                    for (int i = 0; i < c.size; i++) {
+                        out[offset + i] = Math.PI * c.radius[i] * c.radius[i];
+                    }
+                }
+                case RectangleColumn r -> {
+                    for (int i = 0; i < r.size; i++) {
+                        out[offset + i] = r.width[i] * r.height[i];
+                    }
+                }
+                case SquareColumn s -> {
+                    for (int i = 0; i < s.size; i++) {
+                        out[offset + i] = s.side[i] * s.side[i];
+                    }
+                }
+            }
+            offset += column.size();
+        }
+        return out;
+    }
+
+    /*
+     * Umgebende Rechtecke (achsenparallel): Summe ihrer Flächen und größte Ausdehnung.
+     */
+    public record Bounds(double totalBoundingArea, double maxWidth, double maxHeight) {}
+
+    public Bounds bounds() {
+        double area = 4 * sumOfSquares(circles.radius, 0, circles.size)
+                + sumOfProducts(rectangles.width, rectangles.height, 0, rectangles.size)
+                + sumOfSquares(squares.side, 0, squares.size);
+        double maxCircle = 2 * max(circles.radius, circles.size);
+        double maxSide = max(squares.side, squares.size);
+        return new Bounds(area,
+                Math.max(Math.max(maxCircle, maxSide), max(rectangles.width, rectangles.size)),
+                Math.max(Math.max(maxCircle, maxSide), max(rectangles.height, rectangles.size)));
+    }
+
+    /*
+     * Neue Ablage mit allen Shapes, deren Kennzahl das Prädikat erfüllt.
+     */
+    public ColumnarShapeStore filter(Metric metric, DoublePredicate predicate) {
+        ColumnarShapeStore result = new ColumnarShapeStore();
+        boolean area = metric == Metric.AREA;
+        for (int i = 0; i < circles.size; i++) {
+            double r = circles.radius[i];
+            if (predicate.test(area ? Math.PI * r * r : 2 * Math.PI * r)) {
+                result.circles.add(r);
+            }
+        }
+        for (int i = 0; i < rectangles.size; i++) {
+            double w = rectangles.width[i];
+            double h = rectangles.height[i];
+            if (predicate.test(area ? w * h : 2 * (w + h))) {
+                result.rectangles.add(w, h);
+            }
+        }
+        for (int i = 0; i < squares.size; i++) {
+            double s = squares.side[i];
+            if (predicate.test(area ? s * s : 4 * s)) {
+                result.squares.add(s);
+            }
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------------
+    // Schleifen über primitive Blöcke, je 4 Akkumulatoren
+    // ------------------------------------------------------------
+    static double sum(double[] a, int from, int to) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += a[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double sumOfSquares(double[] a, int from, int to) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            s0 += a[i] * a[i];
+            s1 += a[i + 1] * a[i + 1];
+            s2 += a[i + 2] * a[i + 2];
+            s3 += a[i + 3] * a[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += a[i] * a[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double sumOfProducts(double[] a, double[] b, int from, int to) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < to; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double max(double[] a, int size) {
+        double max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,360 @@
+package main;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemoryLayout.PathElement;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import main.PatternMatchingRecordDemo.Circle;
+import main.PatternMatchingRecordDemo.Rectangle;
+import main.PatternMatchingRecordDemo.Shape;
+import main.PatternMatchingRecordDemo.Square;
+
+/*
+ * Persistente Shape-Ablage außerhalb des Heaps (Foreign Function & Memory API).
+ *
+ * Problem mit Records im Heap:
+ *  - Gigabytes an kleinen Objekten -> lange GC-Pausen
+ *  - nach jedem Neustart muss alles neu eingelesen und als Record erzeugt werden
+ *
+ * Hier:
+ *  - jede Shape ist ein Struct fester Größe (24 Byte): tag + 2 doubles
+ *      Circle    -> tag=0, a=radius
+ *      Rectangle -> tag=1, a=width, b=height
+ *      Square    -> tag=2, a=side
+ *  - die Datei wird per FileChannel.map(...) als MemorySegment eingeblendet
+ *  - Öffnen = nur mmap, es wird NICHTS gelesen -> Millisekunden, unabhängig von der Größe.
+ *    Die Seiten lädt das Betriebssystem erst beim ersten Zugriff (bzw. aus dem Page Cache).
+ *  - Abfragen laufen direkt über das Segment, ohne Records zu erzeugen
+ *
+ * Exhaustiveness:
+ *  - nur append(Shape) ist ein Pattern-Switch über das sealed interface Shape:
+ *    kommt eine neue Shape hinzu, meldet der Compiler diese Stelle
+ *  - die Tag-Switches beim Lesen (apply, get) und ShapeFunction hängen NICHT an der
+ *    sealed-Hierarchie; dort muss eine neue Shape-Art von Hand nachgezogen werden
+ *    (sonst IllegalStateException "corrupt tag" bzw. fehlende Methode)
+ *
+ * Hinweis: Die FFM-API ist in Java 21 Preview (--enable-preview), final ab Java 22.
+ *
+ * Vorteile:
+ *  - kein GC-Druck, beliebig große Datenmengen (begrenzt durch Adressraum, nicht durch -Xmx)
+ *  - schneller Kaltstart, mehrere Prozesse teilen sich den Page Cache
+ * Nachteile:
+ *  - festes Layout: Schema-Änderungen brauchen eine neue Version
+ *  - Lebensdauer über Arena: nach close() ist jeder Zugriff ein Fehler (IllegalStateException)
+ */
+public class MappedShapeStore implements AutoCloseable {
+
+    /*
+     * Berechnung pro Shape-Art direkt auf den gespeicherten Werten.
+     */
+    public interface ShapeFunction {
+        double circle(double radius);
+
+        double rectangle(double width, double height);
+
+        double square(double side);
+    }
+
+    public static final ShapeFunction AREA = new ShapeFunction() {
+        public double circle(double r) { return Math.PI * r * r; }
+        public double rectangle(double w, double h) { return w * h; }
+        public double square(double s) { return s * s; }
+    };
+
+    public static final ShapeFunction PERIMETER = new ShapeFunction() {
+        public double circle(double r) { return 2 * Math.PI * r; }
+        public double rectangle(double w, double h) { return 2 * (w + h); }
+        public double square(double s) { return 4 * s; }
+    };
+
+    // ------------------------------------------------------------
+    // Datei-Layout (Little Endian, unabhängig von der Plattform)
+    // ------------------------------------------------------------
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    static final StructLayout SHAPE = MemoryLayout.structLayout(
+            INT.withName("tag"),
+            MemoryLayout.paddingLayout(4),  // doubles auf 8 Byte ausrichten
+            DOUBLE.withName("a"),
+            DOUBLE.withName("b"));
+
+    static final long SHAPE_SIZE = SHAPE.byteSize();
+    static final long TAG = SHAPE.byteOffset(PathElement.groupElement("tag"));
+    static final long A = SHAPE.byteOffset(PathElement.groupElement("a"));
+    static final long B = SHAPE.byteOffset(PathElement.groupElement("b"));
+
+    // Header: magic, version, Struct-Größe, Anzahl – danach die Structs
+    static final long MAGIC = 0x3130_5345_5041_4853L; // "SHAPES01"
+    static final int VERSION = 1;
+    static final long HEADER_SIZE = 64;
+
+    static final int CIRCLE = 0;
+    static final int RECTANGLE = 1;
+    static final int SQUARE = 2;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final long count;
+
+    private MappedShapeStore(Arena arena, MemorySegment segment, long count) {
+        this.arena = arena;
+        this.segment = segment;
+        this.count = count;
+    }
+
+    /*
+     * Öffnet eine bestehende Ablage (nur lesend). Kosten: ein mmap-Aufruf.
+     * Die Arena ist "shared", damit parallele Abfragen aus mehreren Threads erlaubt sind.
+     */
+    public static MappedShapeStore open(Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (segment.byteSize() < HEADER_SIZE || segment.get(LONG, 0) != MAGIC) {
+                throw new IOException("not a shape store: " + file);
+            }
+            if (segment.get(INT, 8) != VERSION || segment.get(INT, 12) != SHAPE_SIZE) {
+                throw new IOException("unsupported shape store version in " + file);
+            }
+            // Division statt Multiplikation: ein negativer oder riesiger Zähler aus der Datei
+            // darf nicht überlaufen und so die Prüfung umgehen
+            long count = segment.get(LONG, 16);
+            if (count < 0 || count > (segment.byteSize() - HEADER_SIZE) / SHAPE_SIZE) {
+                throw new IOException("corrupt shape store (count " + count + "): " + file);
+            }
+            return new MappedShapeStore(arena, segment, count);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    // ------------------------------------------------------------
+    // Abfragen direkt auf dem Segment
+    // ------------------------------------------------------------
+
+    public double apply(long index, ShapeFunction function) {
+        return apply(segment, offsetOf(index), function);
+    }
+
+    public double sum(ShapeFunction function) {
+        return sum(function, 0, count);
+    }
+
+    // Schleife mit lokalem Segment und fortlaufendem Offset – keine Index-Prüfung pro Element
+    private double sum(ShapeFunction function, long from, long to) {
+        MemorySegment s = segment;
+        double sum = 0;
+        for (long offset = HEADER_SIZE + from * SHAPE_SIZE, end = HEADER_SIZE + to * SHAPE_SIZE;
+             offset < end; offset += SHAPE_SIZE) {
+            sum += apply(s, offset, function);
+        }
+        return sum;
+    }
+
+    private static double apply(MemorySegment s, long offset, ShapeFunction function) {
+        int tag = s.get(INT, offset + TAG);
+        double a = s.get(DOUBLE, offset + A);
+        return switch (tag) {
+            case CIRCLE -> function.circle(a);
+            case RECTANGLE -> function.rectangle(a, s.get(DOUBLE, offset + B));
+            case SQUARE -> function.square(a);
+            default -> throw new IllegalStateException("corrupt tag " + tag + " at offset " + offset);
+        };
+    }
+
+    /*
+     * Parallel in Chunks, Chunk-Summen in fester Reihenfolge addiert.
+     */
+    public double parallelSum(ShapeFunction function) {
+        long chunk = 1 << 20;
+        long chunks = (count + chunk - 1) / chunk;
+        double[] partial = new double[(int) chunks];
+        LongStream.range(0, chunks).parallel().forEach(c ->
+                partial[(int) c] = sum(function, c * chunk, Math.min(count, (c + 1) * chunk)));
+        double sum = 0;
+        for (double p : partial) {
+            sum += p;
+        }
+        return sum;
+    }
+
+    /*
+     * Zählt die Shapes, deren Kennzahl über threshold liegt.
+     */
+    public long countAbove(ShapeFunction function, double threshold) {
+        MemorySegment s = segment;
+        long n = 0;
+        for (long offset = HEADER_SIZE, end = HEADER_SIZE + count * SHAPE_SIZE; offset < end; offset += SHAPE_SIZE) {
+            if (apply(s, offset, function) > threshold) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /*
+     * Einzelne Shape als Record – nur wenn wirklich ein Objekt gebraucht wird.
+     */
+    public Shape get(long index) {
+        long offset = offsetOf(index);
+        int tag = segment.get(INT, offset + TAG);
+        double a = segment.get(DOUBLE, offset + A);
+        return switch (tag) {
+            case CIRCLE -> new Circle(a);
+            case RECTANGLE -> new Rectangle(a, segment.get(DOUBLE, offset + B));
+            case SQUARE -> new Square(a);
+            default -> throw new IllegalStateException("corrupt tag " + tag + " at index " + index);
+        };
+    }
+
+    private long offsetOf(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + count);
+        }
+        return HEADER_SIZE + index * SHAPE_SIZE;
+    }
+
+    @Override
+    public void close() {
+        arena.close(); // hebt das Mapping auf
+    }
+
+    // ------------------------------------------------------------
+    // Schreiben
+    // ------------------------------------------------------------
+    public static Writer create(Path file) throws IOException {
+        return new Writer(file);
+    }
+
+    /*
+     * Hängt Shapes an. Die Datei wird in wachsenden Blöcken gemappt,
+     * close() schreibt die Anzahl in den Header und schneidet auf die genaue Größe ab.
+     * Nur von einem Thread benutzen (confined Arena).
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private Arena arena;
+        private MemorySegment segment;
+        private long count;
+
+        private Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            remap(HEADER_SIZE + 1024 * SHAPE_SIZE);
+            segment.set(LONG, 0, MAGIC);
+            segment.set(INT, 8, VERSION);
+            segment.set(INT, 12, (int) SHAPE_SIZE);
+        }
+
+        public void append(Shape shape) throws IOException {
+            long offset = HEADER_SIZE + count * SHAPE_SIZE;
+            if (offset + SHAPE_SIZE > segment.byteSize()) {
+                remap(segment.byteSize() * 2);
+            }
+            switch (shape) {
+                case Circle(double r) -> write(offset, CIRCLE, r, 0);
+                case Rectangle(double w, double h) -> write(offset, RECTANGLE, w, h);
+                case Square(double s) -> write(offset, SQUARE, s, 0);
+            }
+            count++;
+        }
+
+        private void write(long offset, int tag, double a, double b) {
+            segment.set(INT, offset + TAG, tag);
+            segment.set(DOUBLE, offset + A, a);
+            segment.set(DOUBLE, offset + B, b);
+        }
+
+        private void remap(long size) throws IOException {
+            if (arena != null) {
+                arena.close();
+            }
+            arena = Arena.ofConfined();
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        }
+
+        @Override
+        public void close() throws IOException {
+            segment.set(LONG, 16, count);
+            segment.force(); // auf die Platte schreiben
+            arena.close();
+            channel.truncate(HEADER_SIZE + count * SHAPE_SIZE);
+            channel.close();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Demo: schreiben, neu öffnen, abfragen
+    // Start: java --enable-preview main.MappedShapeStore [anzahlShapes] [datei]
+    // ------------------------------------------------------------
+    public static void main(String[] args) throws IOException {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("shapes", ".bin");
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Shape> sample = new ArrayList<>();
+        long t0 = System.nanoTime();
+        try (Writer writer = create(file)) {
+            for (long i = 0; i < n; i++) {
+                Shape shape = switch (random.nextInt(3)) {
+                    case 0 -> new Circle(random.nextDouble(0.1, 5));
+                    case 1 -> new Rectangle(random.nextDouble(0.1, 10), random.nextDouble(0.1, 10));
+                    default -> new Square(random.nextDouble(0.1, 10));
+                };
+                writer.append(shape);
+                if (i < 3) {
+                    sample.add(shape);
+                }
+            }
+        }
+        System.out.printf("Geschrieben: %,d Shapes, %,d MB in %d ms%n",
+                n, Files.size(file) >> 20, (System.nanoTime() - t0) / 1_000_000);
+
+        t0 = System.nanoTime();
+        try (MappedShapeStore store = open(file)) {
+            System.out.printf("Geöffnet in %.3f ms (%,d Shapes)%n", (System.nanoTime() - t0) / 1e6, store.size());
+
+            for (int i = 0; i < sample.size(); i++) {
+                System.out.println("  " + store.get(i) + " == " + sample.get(i));
+            }
+
+            for (int round = 1; round <= 3; round++) {
+                t0 = System.nanoTime();
+                double area = store.sum(AREA);
+                long t1 = System.nanoTime();
+                double parallelArea = store.parallelSum(AREA);
+                long t2 = System.nanoTime();
+                long big = store.countAbove(AREA, 50);
+                long t3 = System.nanoTime();
+                System.out.printf("Runde %d: Fläche %.6e in %d ms, parallel %.6e in %d ms, %,d mit Fläche > 50 in %d ms%n",
+                        round, area, (t1 - t0) / 1_000_000, parallelArea, (t2 - t1) / 1_000_000,
+                        big, (t3 - t2) / 1_000_000);
+            }
+        }
+
+        if (args.length < 2) {
+            Files.delete(file);
+        }
+    }
+}
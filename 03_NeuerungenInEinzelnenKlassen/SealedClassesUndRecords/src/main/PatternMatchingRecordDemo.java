@@ -46,6 +46,7 @@ public class PatternMatchingRecordDemo {
     }
 
     // 3) Pattern Matching für switch (Pattern Switch)
+    //    Für Millionen Shapes pro Batch: siehe ColumnarShapeStore (eine double[]-Spalte pro Record-Art)
     private static void printShapeAreaSwitch(Shape shape) {
         double area = switch (shape) {
             case Circle c      -> Math.PI * c.radius() * c.radius();
@@ -0,0 +1,122 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import main.PatternMatchingRecordDemo.Circle;
+import main.PatternMatchingRecordDemo.Rectangle;
+import main.PatternMatchingRecordDemo.Shape;
+import main.PatternMatchingRecordDemo.Square;
+
+/*
+ * Record pro Objekt + Pattern-Switch vs. ColumnarShapeStore.
+ *
+ * Gemessen (nach Warmup, bestes von mehreren Durchläufen):
+ *  - Gesamtfläche und Gesamtumfang
+ *  - Filter "Fläche > 50"
+ *  - Heap-Bedarf beider Darstellungen
+ *
+ * Ausgabe als CSV: operation,variant,shapes,msPerOp,nsPerShape
+ *
+ * Start:  java -Xmx4g main.ShapeBatchBenchmark [anzahlShapes]
+ */
+public class ShapeBatchBenchmark {
+
+    static volatile double sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        long before = usedHeap();
+        List<Shape> shapes = randomShapes(n);
+        long objectBytes = usedHeap() - before;
+
+        before = usedHeap();
+        ColumnarShapeStore store = new ColumnarShapeStore();
+        store.addAll(shapes);
+        long columnarBytes = usedHeap() - before;
+
+        System.out.printf("# Heap: Records %.1f Byte/Shape, spaltenweise %.1f Byte/Shape (inkl. Wachstumsreserve)%n",
+                (double) objectBytes / n, (double) columnarBytes / n);
+        System.out.printf("# Kontrolle: Fläche Records=%.6e, spaltenweise=%.6e%n",
+                totalAreaRecords(shapes), store.totalArea());
+
+        System.out.println("operation,variant,shapes,msPerOp,nsPerShape");
+        measure("area", "records-switch", n, () -> sink = totalAreaRecords(shapes));
+        measure("area", "columnar", n, () -> sink = store.totalArea());
+        measure("area", "columnar-parallel", n, () -> sink = store.parallelTotal(ColumnarShapeStore.Metric.AREA));
+        measure("perimeter", "records-switch", n, () -> sink = totalPerimeterRecords(shapes));
+        measure("perimeter", "columnar", n, () -> sink = store.totalPerimeter());
+        measure("perimeter", "columnar-parallel", n,
+                () -> sink = store.parallelTotal(ColumnarShapeStore.Metric.PERIMETER));
+        measure("filter", "records-switch", n,
+                () -> sink = shapes.stream().filter(s -> area(s) > 50).count());
+        measure("filter", "columnar", n,
+                () -> sink = store.filter(ColumnarShapeStore.Metric.AREA, a -> a > 50).size());
+    }
+
+    static void measure(String operation, String variant, int n, Runnable op) {
+        for (int i = 0; i < 5; i++) { // Warmup
+            op.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long t0 = System.nanoTime();
+            op.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf("%s,%s,%d,%.2f,%.3f%n", operation, variant, n, best / 1e6, (double) best / n);
+    }
+
+    // Der bisherige Weg aus PatternMatchingRecordDemo.printShapeAreaSwitch
+    static double area(Shape shape) {
+        return switch (shape) {
+            case Circle c -> Math.PI * c.radius() * c.radius();
+            case Rectangle r -> r.width() * r.height();
+            case Square sq -> sq.side() * sq.side();
+        };
+    }
+
+    static double totalAreaRecords(List<Shape> shapes) {
+        double sum = 0;
+        for (Shape shape : shapes) {
+            sum += area(shape);
+        }
+        return sum;
+    }
+
+    static double totalPerimeterRecords(List<Shape> shapes) {
+        double sum = 0;
+        for (Shape shape : shapes) {
+            sum += switch (shape) {
+                case Circle c -> 2 * Math.PI * c.radius();
+                case Rectangle r -> 2 * (r.width() + r.height());
+                case Square sq -> 4 * sq.side();
+            };
+        }
+        return sum;
+    }
+
+    // gemischte Arten in zufälliger Reihenfolge -> realistischer Typ-Switch
+    static List<Shape> randomShapes(int n) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Shape> shapes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            shapes.add(switch (random.nextInt(3)) {
+                case 0 -> new Circle(random.nextDouble(0.1, 5));
+                case 1 -> new Rectangle(random.nextDouble(0.1, 10), random.nextDouble(0.1, 10));
+                default -> new Square(random.nextDouble(0.1, 10));
+            });
+        }
+        return shapes;
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
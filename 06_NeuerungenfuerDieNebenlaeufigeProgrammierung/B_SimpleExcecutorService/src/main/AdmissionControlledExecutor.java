@@ -0,0 +1,285 @@
+package main;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * ExecutorService mit Zulassungskontrolle (Admission Control) für virtuelle Threads.
+ *
+ * Problem:
+ *  - newVirtualThreadPerTaskExecutor() startet beliebig viele Threads.
+ *  - Das ist billig – bis alle denselben Downstream treffen
+ *    (Sockets, DB-Verbindungen, Heap ...).
+ *
+ * Lösung:
+ *  - max. Anzahl gleichzeitig laufender Tasks ("in flight")  -> Semaphore
+ *  - optionale Limits pro Mandant (Tenant)                   -> je eine Semaphore
+ *  - begrenzte Warteschlange: max. Anzahl wartender Aufrufer (nur wer wirklich
+ *    warten muss, zählt – sind die Permits frei, geht es ohne Warteschlange durch)
+ *  - Policy, wenn das Limit erreicht ist: BLOCK, TIMEOUT, REJECT
+ *
+ * Backpressure: Gewartet wird im AUFRUFER von execute()/submit().
+ * Wer zu schnell produziert, wird also automatisch gebremst.
+ */
+public class AdmissionControlledExecutor extends AbstractExecutorService {
+
+    public enum Policy {
+        BLOCK,      // warten, bis ein Platz frei ist
+        TIMEOUT,    // höchstens "timeout" warten, danach ablehnen
+        REJECT      // sofort ablehnen
+    }
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private final ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Policy policy;
+    private final Duration timeout;
+
+    // unfair: schneller, Reihenfolge der Wartenden ist hier egal
+    private final Semaphore inFlightPermits;
+    private final Map<String, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+
+    // Metriken
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger maxQueuedSeen = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public AdmissionControlledExecutor(int maxInFlight, int maxQueued, Policy policy, Duration timeout) {
+        if (maxInFlight <= 0 || maxQueued < 0) {
+            throw new IllegalArgumentException("maxInFlight must be > 0 and maxQueued >= 0");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.policy = policy;
+        this.timeout = timeout;
+        this.inFlightPermits = new Semaphore(maxInFlight, false);
+    }
+
+    public AdmissionControlledExecutor(int maxInFlight, int maxQueued, Policy policy) {
+        this(maxInFlight, maxQueued, policy, Duration.ZERO);
+    }
+
+    /*
+     * Eigenes Limit für einen Mandanten. Muss vor der ersten Nutzung gesetzt werden,
+     * sonst gilt für den Mandanten nur das globale Limit. Gedacht für eine feste,
+     * kleine Menge von Mandanten (je Mandant eine Semaphore, die nie entfernt wird).
+     */
+    public AdmissionControlledExecutor tenantLimit(String tenant, int limit) {
+        tenantPermits.put(tenant, new Semaphore(limit, false));
+        return this;
+    }
+
+    // ------------------------------------------------------------
+    // Einreichen
+    // ------------------------------------------------------------
+
+    @Override
+    public void execute(Runnable task) {
+        execute(DEFAULT_TENANT, task);
+    }
+
+    public <T> Future<T> submit(String tenant, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(tenant, future);
+        return future;
+    }
+
+    public void execute(String tenant, Runnable task) {
+        if (delegate.isShutdown()) {
+            throw new RejectedExecutionException("Executor ist heruntergefahren");
+        }
+
+        // nur konfigurierte Mandanten haben eine eigene Semaphore, alle anderen teilen sich
+        // das globale Limit -> die Map wächst nicht mit jeder neuen Tenant-ID
+        Semaphore tenantLimit = tenantPermits.get(tenant);
+
+        // 1) Schnellweg: sind beide Permits sofort frei, wartet niemand
+        boolean tenantAcquired = tenantLimit == null || tenantLimit.tryAcquire();
+        boolean globalAcquired = tenantAcquired && inFlightPermits.tryAcquire();
+
+        if (!globalAcquired) {
+            // 2) Erst jetzt zählt der Aufrufer als wartend: Platz in der Warteschlange?
+            int depth = policy == Policy.REJECT ? 0 : queued.incrementAndGet();
+            if (depth > maxQueued) {
+                queued.decrementAndGet();
+                releaseTenant(tenantLimit, tenantAcquired);
+                reject("Warteschlange voll (" + maxQueued + ")");
+            }
+            maxQueuedSeen.accumulateAndGet(depth, Math::max);
+
+            // Erst Mandanten-, dann globales Permit
+            long start = System.nanoTime();
+            try {
+                tenantAcquired = tenantAcquired || acquire(tenantLimit, start);
+                globalAcquired = tenantAcquired && acquire(inFlightPermits, start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Beim Warten unterbrochen", e);
+            } finally {
+                if (depth > 0) {
+                    queued.decrementAndGet();
+                }
+                long waited = System.nanoTime() - start;
+                totalWaitNanos.addAndGet(waited);
+                maxWaitNanos.accumulate(waited);
+
+                if (!globalAcquired) {
+                    releaseTenant(tenantLimit, tenantAcquired);
+                }
+            }
+
+            if (!globalAcquired) {
+                reject("Limit erreicht für Tenant '" + tenant + "' (Policy " + policy + ")");
+            }
+        }
+
+        // 3) Ausführen – Permits werden am Ende des Tasks freigegeben
+        inFlight.incrementAndGet();
+        accepted.increment();
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    inFlightPermits.release();
+                    releaseTenant(tenantLimit, true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            inFlightPermits.release();
+            releaseTenant(tenantLimit, true);
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private static void releaseTenant(Semaphore tenantLimit, boolean acquired) {
+        if (tenantLimit != null && acquired) {
+            tenantLimit.release();
+        }
+    }
+
+    private boolean acquire(Semaphore semaphore, long startNanos) throws InterruptedException {
+        return switch (policy) {
+            case BLOCK -> {
+                semaphore.acquire();
+                yield true;
+            }
+            case TIMEOUT -> {
+                long remaining = timeout.toNanos() - (System.nanoTime() - startNanos);
+                yield semaphore.tryAcquire(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            }
+            case REJECT -> semaphore.tryAcquire();
+        };
+    }
+
+    private void reject(String reason) {
+        rejected.increment();
+        throw new RejectedExecutionException(reason);
+    }
+
+    // ------------------------------------------------------------
+    // Metriken
+    // ------------------------------------------------------------
+
+    public record Metrics(int queueDepth, int maxQueueDepth, int inFlight,
+                          long accepted, long rejected,
+                          Duration averageWait, Duration maxWait) {}
+
+    public Metrics metrics() {
+        long acc = accepted.sum();
+        long rej = rejected.sum();
+        long calls = Math.max(1, acc + rej);
+        return new Metrics(queued.get(), maxQueuedSeen.get(), inFlight.get(), acc, rej,
+                Duration.ofNanos(totalWaitNanos.get() / calls),
+                Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    // ------------------------------------------------------------
+    // Lebenszyklus: an den virtuellen Executor durchreichen
+    // ------------------------------------------------------------
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    // ------------------------------------------------------------
+    // Demo
+    // ------------------------------------------------------------
+    public static void main(String[] args) {
+
+        // max. 50 Tasks gleichzeitig, max. 1000 wartende Aufrufer, Tenant "batch" max. 10
+        try (var executor = new AdmissionControlledExecutor(50, 1_000, Policy.BLOCK)
+                .tenantLimit("batch", 10)) {
+
+            for (int i = 0; i < 500; i++) {
+                String tenant = i % 5 == 0 ? "batch" : DEFAULT_TENANT;
+                executor.submit(tenant, () -> {
+                    Thread.sleep(20); // simuliert Downstream-Aufruf
+                    return null;
+                });
+            }
+            System.out.println("Nach dem Einreichen: " + executor.metrics());
+        }
+
+        // REJECT: überzählige Tasks werden sofort abgelehnt
+        try (var executor = new AdmissionControlledExecutor(5, 0, Policy.REJECT)) {
+            for (int i = 0; i < 20; i++) {
+                try {
+                    executor.submit(() -> {
+                        Thread.sleep(100);
+                        return null;
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Hier könnte man z.B. HTTP 503 liefern
+                }
+            }
+            System.out.println("REJECT-Policy:       " + executor.metrics());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package main;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Strukturiertes Fan-out über VIELE Schlüssel mit begrenzter Parallelität.
+ *
+ * Problem bei StructuredScopeExample:
+ *  - alle Subtasks werden auf einmal geforkt (bei 10.000 Schlüsseln -> 10.000 Aufrufe gleichzeitig)
+ *  - Ergebnisse gibt es erst nach join() – bis dahin liegen ALLE im Speicher
+ *
+ * Dieser Scope:
+ *  - höchstens "limit" Subtasks laufen gleichzeitig
+ *  - Eingaben werden erst geforkt, wenn ein Platz frei wird (lazy aus einem Iterator)
+ *  - Ergebnisse kommen in Fertigstellungs-Reihenfolge als Iterator/Stream
+ *  - erster Fehler -> shutdown() bricht alle laufenden Subtasks ab, der Iterator wirft
+ *  - Abbruch durch den Aufrufer (break, limit(), Interrupt) -> close() bricht den Rest ab
+ *
+ * Speicher: höchstens "limit" laufende Subtasks + "limit" fertige Ergebnisse in der Queue,
+ * unabhängig von der Anzahl der Eingaben.
+ *
+ * Wichtig: Iterator/Stream nur im Owner-Thread (der den Scope geöffnet hat) konsumieren,
+ * denn fork() ist nur dort erlaubt. Der Stream ist sequentiell.
+ *
+ * Hinweis: StructuredTaskScope ist in Java 21 Preview (--enable-preview).
+ */
+public class BoundedFanOut<T, R> extends StructuredTaskScope<BoundedFanOut.Completed<T, R>> {
+
+    /*
+     * Aufgabe pro Eingabe – darf wie ein Callable Exceptions werfen.
+     */
+    @FunctionalInterface
+    public interface Task<T, R> {
+        R call(T input) throws Exception;
+    }
+
+    public record Completed<T, R>(T input, R result) {
+    }
+
+    private record Failure<T>(T input, Throwable cause) {
+    }
+
+    // Marker in der Queue: weckt den Owner nach einem Fehler auf
+    private static final Object FAILED = new Object();
+
+    private final int limit;
+    private final BlockingQueue<Object> completions;
+    private final AtomicReference<Failure<T>> firstFailure = new AtomicReference<>();
+
+    // wird nur vom Owner-Thread gelesen und geschrieben
+    private int inFlight;
+
+    public BoundedFanOut(int limit) {
+        super("bounded-fan-out", Thread.ofVirtual().factory());
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be >= 1");
+        }
+        this.limit = limit;
+        // limit Ergebnisse + 1 Fehler-Marker – mehr kann nie gleichzeitig drin sein
+        this.completions = new ArrayBlockingQueue<>(limit + 1);
+    }
+
+    /*
+     * Ergebnisse in Fertigstellungs-Reihenfolge. Geforkt wird erst beim Weiterlesen.
+     */
+    public Iterator<Completed<T, R>> results(Iterator<? extends T> inputs, Task<? super T, ? extends R> task) {
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                throwIfFailed();
+                fill();
+                return inFlight > 0;
+            }
+
+            @Override
+            public Completed<T, R> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object completion = take();
+                inFlight--;
+                if (completion == FAILED) {
+                    throwIfFailed();
+                }
+                @SuppressWarnings("unchecked")
+                Completed<T, R> completed = (Completed<T, R>) completion;
+                return completed;
+            }
+
+            // Nachschub forken, bis das Limit erreicht ist
+            private void fill() {
+                while (inFlight < limit && !isShutdown() && inputs.hasNext()) {
+                    T input = inputs.next();
+                    fork(() -> {
+                        try {
+                            return new Completed<T, R>(input, task.call(input));
+                        } catch (Throwable t) {
+                            // auch Errors: handleComplete meldet FAILED, next() braucht dann einen Grund
+                            firstFailure.compareAndSet(null, new Failure<>(input, t));
+                            throw t;
+                        }
+                    });
+                    inFlight++;
+                }
+            }
+        };
+    }
+
+    public Iterator<Completed<T, R>> results(Iterable<? extends T> inputs, Task<? super T, ? extends R> task) {
+        return results(inputs.iterator(), task);
+    }
+
+    /*
+     * Dasselbe als sequentieller Stream (z.B. für limit(), takeWhile(), forEach()).
+     */
+    public Stream<Completed<T, R>> stream(Iterable<? extends T> inputs, Task<? super T, ? extends R> task) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                results(inputs, task), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public Stream<Completed<T, R>> stream(Stream<? extends T> inputs, Task<? super T, ? extends R> task) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                results(inputs.iterator(), task), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    protected void handleComplete(Subtask<? extends Completed<T, R>> subtask) {
+        switch (subtask.state()) {
+            case SUCCESS -> completions.add(subtask.get());
+            case FAILED -> {
+                shutdown(); // übrige Subtasks abbrechen, keine weiteren handleComplete-Aufrufe
+                completions.add(FAILED);
+            }
+            case UNAVAILABLE -> { } // nach shutdown() abgebrochen
+        }
+    }
+
+    private Object take() {
+        try {
+            return completions.take();
+        } catch (InterruptedException e) {
+            // Abbruch durch den Aufrufer
+            shutdown();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("fan-out interrupted");
+        }
+    }
+
+    private void throwIfFailed() {
+        Failure<T> failure = firstFailure.get();
+        if (failure != null) {
+            shutdown();
+            throw new CompletionException("task failed for input " + failure.input(), failure.cause());
+        }
+    }
+
+    /*
+     * Bricht noch laufende Subtasks ab (z.B. wenn der Aufrufer vorzeitig aufhört)
+     * und wartet, bis alle Threads beendet sind.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            join(); // kehrt nach shutdown() sofort zurück; Pflicht vor close()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.close();
+    }
+
+    // ------------------------------------------------------------
+    // Demo: 2.000 Schlüssel, höchstens 16 gleichzeitig
+    // ------------------------------------------------------------
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final AtomicInteger MAX_ACTIVE = new AtomicInteger();
+    private static final AtomicInteger STARTED = new AtomicInteger();
+
+    public static void main(String[] args) {
+
+        // 1) Alle Ergebnisse streamen
+        long start = System.nanoTime();
+        int count = 0;
+        try (var fanOut = new BoundedFanOut<Integer, String>(16)) {
+            Iterator<Completed<Integer, String>> it =
+                    fanOut.results(IntStream.range(0, 2_000).iterator(), key -> load(key, -1));
+            while (it.hasNext()) {
+                Completed<Integer, String> c = it.next();
+                if (count++ < 5) {
+                    System.out.println("fertig: " + c.input() + " -> " + c.result());
+                }
+            }
+        }
+        System.out.printf("%d Ergebnisse in %d ms, max. gleichzeitig: %d%n",
+                count, (System.nanoTime() - start) / 1_000_000, MAX_ACTIVE.get());
+
+        // 2) Der Aufrufer braucht nur die ersten 50 -> der Rest wird gar nicht erst gestartet
+        STARTED.set(0);
+        try (var fanOut = new BoundedFanOut<Integer, String>(16)) {
+            long found = fanOut.stream(IntStream.range(0, 2_000).boxed(), key -> load(key, -1))
+                    .limit(50)
+                    .count();
+            System.out.println("Gelesen: " + found + ", gestartet: " + STARTED.get() + " von 2000");
+        }
+
+        // 3) Ein Fehler bricht alles Weitere ab
+        STARTED.set(0);
+        try (var fanOut = new BoundedFanOut<Integer, String>(16)) {
+            fanOut.stream(IntStream.range(0, 2_000).boxed(), key -> load(key, 137)).forEach(c -> { });
+        } catch (CompletionException e) {
+            System.out.println("Abbruch: " + e.getMessage() + " (" + e.getCause().getMessage()
+                    + "), gestartet: " + STARTED.get() + " von 2000");
+        }
+    }
+
+    private static String load(int key, int failingKey) throws InterruptedException {
+        STARTED.incrementAndGet();
+        MAX_ACTIVE.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5, 30)); // simuliert IO
+            if (key == failingKey) {
+                throw new IllegalStateException("Downstream-Fehler");
+            }
+            return "Wert-" + key;
+        } finally {
+            ACTIVE.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package main;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * StructuredTaskScope mit Gesamt-Deadline und Teilergebnissen.
+ *
+ * Problem bei StructuredScopeExample:
+ *  - scope.join() wartet unbegrenzt
+ *  - die langsamste Abhängigkeit bestimmt die Latenz des ganzen Requests
+ *
+ * Dieser Scope:
+ *  - wartet mit joinUntil(deadline)
+ *  - bricht bei Ablauf der Deadline alle noch laufenden Subtasks ab (shutdown)
+ *  - liefert ein typisiertes Ergebnis: welche Subtasks fertig, fehlgeschlagen
+ *    oder abgeschnitten wurden
+ *
+ * Der Aufrufer kann dann innerhalb seines SLAs eine "degradierte" Antwort liefern.
+ *
+ * Hinweis: StructuredTaskScope ist in Java 21 Preview (--enable-preview).
+ */
+public class DeadlineScope<T> extends StructuredTaskScope<T> {
+
+    private final Instant deadline;
+    private final Map<String, Subtask<? extends T>> subtasks = new LinkedHashMap<>();
+
+    public DeadlineScope(Instant deadline) {
+        super("deadline-scope", Thread.ofVirtual().factory());
+        this.deadline = deadline;
+    }
+
+    public DeadlineScope(Duration timeout) {
+        this(Instant.now().plus(timeout));
+    }
+
+    /*
+     * Subtask mit Namen starten – der Name taucht im Ergebnis wieder auf.
+     */
+    public <U extends T> Subtask<U> fork(String name, Callable<? extends U> task) {
+        Subtask<U> subtask = super.fork(task);
+        subtasks.put(name, subtask);
+        return subtask;
+    }
+
+    /*
+     * Wartet bis alle Subtasks fertig sind, höchstens bis zur Deadline.
+     * Danach werden noch laufende Subtasks abgebrochen.
+     */
+    public PartialResult<T> joinUntilDeadline() throws InterruptedException {
+        boolean timedOut = false;
+        try {
+            joinUntil(deadline);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            shutdown(); // unterbricht alle noch laufenden Subtasks
+            join();     // kehrt nach shutdown() sofort zurück, Ergebnisse sind danach lesbar
+        }
+
+        Map<String, T> completed = new LinkedHashMap<>();
+        Map<String, Throwable> failed = new LinkedHashMap<>();
+        Set<String> cutOff = new LinkedHashSet<>();
+
+        subtasks.forEach((name, subtask) -> {
+            switch (subtask.state()) {
+                case SUCCESS -> completed.put(name, subtask.get());
+                case FAILED -> failed.put(name, subtask.exception());
+                case UNAVAILABLE -> cutOff.add(name);
+            }
+        });
+
+        return new PartialResult<>(completed, failed, cutOff, timedOut);
+    }
+
+    /*
+     * Ergebnis eines Scopes mit Deadline.
+     */
+    public record PartialResult<T>(Map<String, T> completed,
+                                   Map<String, Throwable> failed,
+                                   Set<String> cutOff,
+                                   boolean deadlineExceeded) {
+
+        public boolean isComplete() {
+            return failed.isEmpty() && cutOff.isEmpty();
+        }
+
+        public T getOrDefault(String name, T fallback) {
+            return completed.getOrDefault(name, fallback);
+        }
+
+        public List<String> missing() {
+            List<String> missing = new ArrayList<>(failed.keySet());
+            missing.addAll(cutOff);
+            return missing;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Demo: dieselben Aufrufe wie in StructuredScopeExample, SLA 600 ms
+    // ------------------------------------------------------------
+    public static void main(String[] args) throws Exception {
+
+        long start = System.nanoTime();
+
+        try (var scope = new DeadlineScope<String>(Duration.ofMillis(600))) {
+
+            scope.fork("user", () -> loadUser());        // 500 ms -> schafft es
+            scope.fork("orders", () -> loadOrders());    // 800 ms -> wird abgeschnitten
+
+            PartialResult<String> result = scope.joinUntilDeadline();
+
+            System.out.println("Nach " + (System.nanoTime() - start) / 1_000_000 + " ms:");
+            System.out.println("User:   " + result.getOrDefault("user", "(unbekannt)"));
+            System.out.println("Orders: " + result.getOrDefault("orders", "(derzeit nicht verfügbar)"));
+
+            if (!result.isComplete()) {
+                System.out.println("Degradierte Antwort, fehlend: " + result.missing());
+            }
+        }
+    }
+
+    private static String loadUser() throws InterruptedException {
+        Thread.sleep(500); // simuliert langsame IO-Operation
+        return "Alice";
+    }
+
+    private static String loadOrders() throws InterruptedException {
+        Thread.sleep(800); // simuliert langsame IO-Operation
+        return "3 offene Bestellungen";
+    }
+}
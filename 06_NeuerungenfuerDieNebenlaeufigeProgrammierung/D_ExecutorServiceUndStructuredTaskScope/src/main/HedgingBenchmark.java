@@ -0,0 +1,142 @@
+package main;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Vergleich der drei Varianten mit "realistischen" Latenzen:
+ *
+ *  1) ExecutorService + Futures          (wie Variante 1 in LoomComparison)
+ *  2) StructuredTaskScope.ShutdownOnFailure (wie Variante 2 in LoomComparison)
+ *  3) ShutdownOnFailure + HedgingCaller pro Downstream-Aufruf
+ *
+ * Jeder Request lädt User und Bestellungen (zwei Downstream-Aufrufe).
+ * Die Latenz der Downstreams wird aus einer Verteilung mit "Long Tail" gezogen.
+ *
+ * Ausgabe: p50 / p99 / p99.9 / max der Request-Latenz und Anzahl
+ * Downstream-Aufrufe (zeigt die Mehrlast durch Hedging).
+ *
+ * Start:  java --enable-preview main.HedgingBenchmark [requests] [parallel]
+ */
+public class HedgingBenchmark {
+
+    /*
+     * Latenz-Verteilung: meist "base" (± 50 %), mit Wahrscheinlichkeit
+     * "tailProbability" aber "tail" – z.B. GC-Pause oder langsamer Knoten.
+     */
+    record LatencyDistribution(String name, long baseMillis, double tailProbability, long tailMillis) {
+
+        long sampleMillis() {
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            if (r.nextDouble() < tailProbability) {
+                return tailMillis;
+            }
+            return baseMillis / 2 + r.nextLong(baseMillis + 1);
+        }
+    }
+
+    enum Variant { EXECUTOR, SHUTDOWN_ON_FAILURE, HEDGED }
+
+    static final AtomicLong downstreamCalls = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int parallel = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        List<LatencyDistribution> distributions = List.of(
+                new LatencyDistribution("konstant", 10, 0.0, 10),
+                new LatencyDistribution("1%-Tail", 10, 0.01, 300),
+                new LatencyDistribution("5%-Tail", 10, 0.05, 300));
+
+        System.out.println("distribution,variant,p50Ms,p99Ms,p999Ms,maxMs,downstreamCallsPerRequest");
+        for (LatencyDistribution distribution : distributions) {
+            for (Variant variant : Variant.values()) {
+                long[] latencies = run(variant, distribution, requests, parallel);
+                System.out.printf("%s,%s,%.1f,%.1f,%.1f,%.1f,%.3f%n",
+                        distribution.name(), variant,
+                        percentile(latencies, 50), percentile(latencies, 99),
+                        percentile(latencies, 99.9), percentile(latencies, 100),
+                        downstreamCalls.get() / (double) requests);
+            }
+        }
+    }
+
+    static long[] run(Variant variant, LatencyDistribution distribution,
+                      int requests, int parallel) throws Exception {
+
+        downstreamCalls.set(0);
+        long[] latencies = new long[requests];
+
+        // pro Downstream ein eigener Hedger (eigene Latenz-Historie)
+        HedgingCaller<String> userHedger = new HedgingCaller<>(95, 10, Duration.ofMillis(2 * distribution.baseMillis()));
+        HedgingCaller<String> ordersHedger = new HedgingCaller<>(95, 10, Duration.ofMillis(2 * distribution.baseMillis()));
+
+        Callable<String> loadUser = () -> downstream(distribution, "User: Alice");
+        Callable<String> loadOrders = () -> downstream(distribution, "Bestellungen: 3");
+
+        Semaphore inFlight = new Semaphore(parallel);
+        // clients wird zuerst geschlossen, danach erst der Executor der Downstream-Aufrufe
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int i = 0; i < requests; i++) {
+                int id = i;
+                inFlight.acquire();
+                clients.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        switch (variant) {
+                            case EXECUTOR -> {
+                                Future<String> user = executor.submit(loadUser);
+                                Future<String> orders = executor.submit(loadOrders);
+                                user.get();
+                                orders.get();
+                            }
+                            case SHUTDOWN_ON_FAILURE -> scoped(loadUser, loadOrders);
+                            case HEDGED -> scoped(() -> userHedger.call(loadUser),
+                                    () -> ordersHedger.call(loadOrders));
+                        }
+                    } finally {
+                        latencies[id] = System.nanoTime() - start;
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        return latencies;
+    }
+
+    static void scoped(Callable<String> user, Callable<String> orders) throws Exception {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            var userTask = scope.fork(user);
+            var ordersTask = scope.fork(orders);
+            scope.join();
+            scope.throwIfFailed();
+            userTask.get();
+            ordersTask.get();
+        }
+    }
+
+    static String downstream(LatencyDistribution distribution, String result) throws InterruptedException {
+        downstreamCalls.incrementAndGet();
+        Thread.sleep(distribution.sampleMillis());
+        return result;
+    }
+
+    static double percentile(long[] nanos, double p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
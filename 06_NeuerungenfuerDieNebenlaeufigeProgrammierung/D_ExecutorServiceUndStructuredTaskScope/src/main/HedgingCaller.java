@@ -0,0 +1,145 @@
+package main;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * "Hedged Requests" mit StructuredTaskScope.ShutdownOnSuccess.
+ *
+ * Idee:
+ *  - Der erste Versuch läuft normal.
+ *  - Braucht er länger als z.B. das p95 der bisherigen Aufrufe,
+ *    wird ein zweiter Versuch (Backup) desselben Aufrufs gestartet.
+ *  - Wer zuerst fertig ist, gewinnt – ShutdownOnSuccess bricht den anderen ab.
+ *
+ * Damit Hedging die Last nicht aufschaukelt, gibt es ein Budget:
+ * höchstens "budgetPercent" % aller Aufrufe dürfen einen Backup starten.
+ *
+ * Vorteile:
+ *  - schneidet den "Long Tail" der Latenz ab (p99, p99.9)
+ * Nachteile:
+ *  - nur für idempotente Aufrufe geeignet!
+ *  - erzeugt Mehrlast beim Downstream (deshalb das Budget)
+ */
+public class HedgingCaller<T> {
+
+    // Anzahl gemerkter Latenzen für die Perzentil-Berechnung
+    private static final int WINDOW = 1024;
+    // Hedge-Verzögerung nur alle 64 Aufrufe neu berechnen (Sortieren kostet)
+    private static final int RECALC_EVERY = 64;
+
+    private final double hedgePercentile;
+    private final double budgetPercent;
+
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long hedgeDelayNanos;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public HedgingCaller(double hedgePercentile, double budgetPercent, Duration initialDelay) {
+        this.hedgePercentile = hedgePercentile;
+        this.budgetPercent = budgetPercent;
+        this.hedgeDelayNanos = initialDelay.toNanos();
+    }
+
+    public T call(Callable<? extends T> task) throws ExecutionException, InterruptedException {
+        calls.incrementAndGet();
+        long start = System.nanoTime();
+
+        try (var scope = new StructuredTaskScope.ShutdownOnSuccess<T>()) {
+
+            // Gemessen wird nur der erste Versuch selbst, nicht die Gesamtdauer mit Backup:
+            // sonst senkt jeder gewonnene Hedge das Perzentil, die Schwelle sinkt und es
+            // wird immer früher gehedgt. Wird der erste Versuch abgebrochen, zählt die Zeit
+            // bis zum Abbruch (Untergrenze seiner echten Latenz).
+            var primary = scope.fork(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    record(System.nanoTime() - start);
+                }
+            });
+
+            boolean hedged = false;
+            try {
+                scope.joinUntil(Instant.now().plusNanos(hedgeDelayNanos));
+            } catch (TimeoutException e) {
+                // Erster Versuch zu langsam -> Backup, falls das Budget es erlaubt
+                if (tryTakeBudget()) {
+                    hedged = true;
+                    scope.fork(task);
+                }
+                scope.join();
+            }
+
+            T result = scope.result(); // wirft ExecutionException, wenn alle fehlschlagen
+
+            // Die Backup-Antwort hat gewonnen, wenn der erste Versuch nicht erfolgreich war
+            if (hedged && primary.state() != StructuredTaskScope.Subtask.State.SUCCESS) {
+                hedgeWins.incrementAndGet();
+            }
+            return result;
+        }
+    }
+
+    private boolean tryTakeBudget() {
+        while (true) {
+            long h = hedges.get();
+            if (h + 1 > calls.get() * budgetPercent / 100.0) {
+                return false;
+            }
+            if (hedges.compareAndSet(h, h + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void record(long nanos) {
+        long n = recorded.getAndIncrement();
+        latencies.set((int) (n % WINDOW), nanos);
+        if (n >= WINDOW && n % RECALC_EVERY == 0) {
+            long[] copy = new long[WINDOW];
+            for (int i = 0; i < WINDOW; i++) {
+                copy[i] = latencies.get(i);
+            }
+            Arrays.sort(copy);
+            hedgeDelayNanos = copy[(int) Math.min(WINDOW - 1, WINDOW * hedgePercentile / 100.0)];
+        }
+    }
+
+    public record Stats(long calls, long hedges, long hedgeWins, Duration currentHedgeDelay) {
+        public double hedgeRatePercent() {
+            return calls == 0 ? 0 : 100.0 * hedges / calls;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(calls.get(), hedges.get(), hedgeWins.get(), Duration.ofNanos(hedgeDelayNanos));
+    }
+
+    public static void main(String[] args) throws Exception {
+        // p95 als Hedge-Schwelle, max. 10 % Backups, bis genug Messwerte da sind: 50 ms
+        HedgingCaller<String> hedging = new HedgingCaller<>(95, 10, Duration.ofMillis(50));
+
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            String result = hedging.call(() -> {
+                // meist schnell, manchmal sehr langsam
+                Thread.sleep(Math.random() < 0.2 ? 500 : 20);
+                return "User: Alice";
+            });
+            System.out.printf("%s in %d ms%n", result, (System.nanoTime() - start) / 1_000_000);
+        }
+        System.out.println(hedging.stats());
+    }
+}
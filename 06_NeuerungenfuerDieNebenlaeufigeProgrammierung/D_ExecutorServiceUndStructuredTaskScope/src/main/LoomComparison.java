@@ -113,5 +113,9 @@ public class LoomComparison {
         //     "Ich habe eine konkrete Operation, die aus mehreren Teilaufgaben besteht,
         //      und alle sollen gemeinsam erfolgreich oder gemeinsam fehlschlagen."
         //     → gut für klar begrenzte, logisch zusammenhängende Nebenläufigkeit.
+        //
+        // - Long Tail der Latenz (einzelne sehr langsame Aufrufe):
+        //     HedgingCaller startet einen Backup-Versuch, ShutdownOnSuccess nimmt
+        //     den schnelleren. Vergleich aller drei Varianten: HedgingBenchmark.
     }
 }
@@ -0,0 +1,91 @@
+package main;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Bulkhead ("Schott"): begrenzt die gleichzeitigen Aufrufe EINER Abhängigkeit.
+ *
+ * Mit virtuellen Threads gibt es praktisch unbegrenzt viele Aufrufer.
+ * Hängt ein Downstream, sammeln sich sonst tausende Threads in genau
+ * diesem Aufruf – und belegen dort Verbindungen, Speicher, Sockets.
+ *
+ * Ist das Limit erreicht, wird sofort abgelehnt (BulkheadFullException), nicht gewartet.
+ * Der Zähler ist ein AtomicInteger mit CAS-Schleife – lockfrei, kein Pinning.
+ *
+ * Typische Kombination:
+ *   bulkhead.decorate(breaker.decorate(() -> loadOrders()))
+ * Der Bulkhead liegt außen: abgelehnte Aufrufe zählen im Breaker NICHT als Fehler
+ * des Downstreams.
+ *
+ * Vorteile:
+ *  - ein langsamer Downstream kann nicht alle Ressourcen des Services binden
+ * Nachteile:
+ *  - Limit pro Abhängigkeit muss gewählt werden (zu klein -> unnötige Ablehnungen)
+ */
+public class Bulkhead {
+
+    public static final class BulkheadFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BulkheadFullException(String name, int limit) {
+            super("bulkhead '" + name + "' is full (" + limit + " concurrent calls)");
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be >= 1");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public <T> Callable<T> decorate(Callable<T> callable) {
+        return () -> call(callable);
+    }
+
+    public <T> T call(Callable<T> callable) throws Exception {
+        tryEnter();
+        try {
+            return callable.call();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void tryEnter() {
+        while (true) {
+            int current = active.get();
+            if (current >= maxConcurrentCalls) {
+                rejected.increment();
+                throw new BulkheadFullException(name, maxConcurrentCalls);
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                peak.accumulateAndGet(current + 1, Math::max);
+                return;
+            }
+        }
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + "[active=" + active.get() + "/" + maxConcurrentCalls
+                + ", peak=" + peak.get() + ", rejected=" + rejected.sum() + "]";
+    }
+}
@@ -0,0 +1,245 @@
+package main;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Lockfreier Circuit Breaker für Subtasks eines StructuredTaskScope.
+ *
+ * Problem in StructuredScopeErrorExample:
+ *  - loadOrdersWithError() wartet 300 ms und scheitert dann
+ *  - solange der Order-Service down ist, zahlt JEDER Request diese 300 ms erneut
+ *
+ * Zustände:
+ *  - CLOSED:    Aufrufe laufen durch, Ergebnisse landen in einem gleitenden Fenster
+ *               (die letzten windowSize Aufrufe). Fehlerquote oder Quote langsamer
+ *               Aufrufe über der Schwelle -> OPEN
+ *  - OPEN:      Aufrufe werden sofort abgelehnt (CallNotPermittedException, Mikrosekunden).
+ *               Nach openDuration -> HALF_OPEN
+ *  - HALF_OPEN: nur wenige Probe-Aufrufe dürfen durch.
+ *               Alle erfolgreich -> CLOSED (neues Fenster), einer scheitert -> wieder OPEN
+ *
+ * Lockfrei:
+ *  - das Fenster ist ein Ring aus AtomicIntegerArray-Slots, Zähler werden per getAndSet-Differenz
+ *    nachgeführt
+ *  - der Zustand ist ein unveränderliches Objekt in einer AtomicReference, Übergänge per CAS
+ *  - kein synchronized, kein Lock -> kein Pinning virtueller Threads
+ *
+ * Vorteile:
+ *  - schnelles Scheitern entlastet Aufrufer UND den angeschlagenen Downstream
+ * Nachteile:
+ *  - Schwellen müssen zum Downstream passen, sonst "flattert" der Breaker
+ *  - Zähler im Fenster sind nur nahezu exakt (Schreiber laufen parallel)
+ */
+public class CircuitBreaker {
+
+    public enum Phase { CLOSED, OPEN, HALF_OPEN }
+
+    public static final class CallNotPermittedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CallNotPermittedException(String name) {
+            super("circuit breaker '" + name + "' is open");
+        }
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final AtomicReference<State> state;
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls,
+                          double failureRateThreshold, double slowCallRateThreshold, Duration slowCallThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("windowSize, minimumCalls and halfOpenCalls must be >= 1");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.state = new AtomicReference<>(State.closed(windowSize));
+    }
+
+    /*
+     * Standardwerte: Fenster 20, ab 10 Aufrufen, 50 % Fehler oder 80 % langsamer als 1 s,
+     * 2 s offen, 3 Probe-Aufrufe.
+     */
+    public static CircuitBreaker withDefaults(String name) {
+        return new CircuitBreaker(name, 20, 10, 0.5, 0.8, Duration.ofSeconds(1), Duration.ofSeconds(2), 3);
+    }
+
+    // ------------------------------------------------------------
+    // Zustand: unveränderlich, jeder Übergang erzeugt ein neues Objekt
+    // ------------------------------------------------------------
+    private record State(Phase phase, long sinceNanos, Window window,
+                         AtomicInteger trialPermits, AtomicInteger trialSuccesses) {
+
+        static State closed(int windowSize) {
+            return new State(Phase.CLOSED, System.nanoTime(), new Window(windowSize), null, null);
+        }
+
+        static State open() {
+            return new State(Phase.OPEN, System.nanoTime(), null, null, null);
+        }
+
+        static State halfOpen(int calls) {
+            return new State(Phase.HALF_OPEN, System.nanoTime(), null,
+                    new AtomicInteger(calls), new AtomicInteger());
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Gleitendes Fenster über die letzten N Aufrufe
+    // ------------------------------------------------------------
+    private static final class Window {
+
+        // Bit 0: Fehler, Bit 1: langsam, Bit 2: belegt
+        static final int FAILED = 1;
+        static final int SLOW = 2;
+        static final int USED = 4;
+
+        private final AtomicIntegerArray slots;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            slots = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failed, boolean slow) {
+            int outcome = USED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+            int slot = (int) (cursor.getAndIncrement() % slots.length());
+            int previous = slots.getAndSet(slot, outcome);
+            // nur die Differenz zum überschriebenen Ergebnis nachführen
+            calls.addAndGet(bit(outcome, USED) - bit(previous, USED));
+            failures.addAndGet(bit(outcome, FAILED) - bit(previous, FAILED));
+            slowCalls.addAndGet(bit(outcome, SLOW) - bit(previous, SLOW));
+        }
+
+        private static int bit(int outcome, int mask) {
+            return (outcome & mask) != 0 ? 1 : 0;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Aufruf
+    // ------------------------------------------------------------
+
+    /*
+     * Verpackt einen Callable, z.B. scope.fork(breaker.decorate(() -> loadOrders())).
+     */
+    public <T> Callable<T> decorate(Callable<T> callable) {
+        return () -> call(callable);
+    }
+
+    public <T> T call(Callable<T> callable) throws Exception {
+        State acquired = acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T result = callable.call();
+            onResult(acquired, false, System.nanoTime() - start);
+            return result;
+        } catch (InterruptedException e) {
+            // Abbruch durch den Scope (shutdown) ist kein Fehler des Downstreams,
+            // eine Probe-Erlaubnis geht zurück, sonst bliebe HALF_OPEN hängen
+            if (acquired.phase() == Phase.HALF_OPEN) {
+                acquired.trialPermits().incrementAndGet();
+            }
+            throw e;
+        } catch (Throwable t) {
+            // auch Errors (z.B. StackOverflowError) zählen als Fehlschlag,
+            // sonst bliebe in HALF_OPEN eine Probe-Erlaubnis für immer verbraucht
+            onResult(acquired, true, System.nanoTime() - start);
+            throw t;
+        }
+    }
+
+    private State acquirePermission() {
+        while (true) {
+            State current = state.get();
+            switch (current.phase()) {
+                case CLOSED -> {
+                    return current;
+                }
+                case OPEN -> {
+                    if (System.nanoTime() - current.sinceNanos() < openNanos) {
+                        rejected.increment();
+                        throw new CallNotPermittedException(name);
+                    }
+                    // Wartezeit vorbei: genau EIN Thread schafft den Übergang, die anderen versuchen es erneut
+                    state.compareAndSet(current, State.halfOpen(halfOpenCalls));
+                }
+                case HALF_OPEN -> {
+                    AtomicInteger permits = current.trialPermits();
+                    int left = permits.get();
+                    if (left <= 0) {
+                        rejected.increment();
+                        throw new CallNotPermittedException(name);
+                    }
+                    if (permits.compareAndSet(left, left - 1)) {
+                        return current;
+                    }
+                }
+            }
+        }
+    }
+
+    private void onResult(State acquired, boolean failed, long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        switch (acquired.phase()) {
+            case CLOSED -> {
+                Window window = acquired.window();
+                window.record(failed, slow);
+                int calls = window.calls.get();
+                if (calls >= minimumCalls
+                        && (window.failures.get() >= failureRateThreshold * calls
+                        || window.slowCalls.get() >= slowCallRateThreshold * calls)) {
+                    state.compareAndSet(acquired, State.open());
+                }
+            }
+            case HALF_OPEN -> {
+                if (failed || slow) {
+                    state.compareAndSet(acquired, State.open());
+                } else if (acquired.trialSuccesses().incrementAndGet() >= halfOpenCalls) {
+                    state.compareAndSet(acquired, State.closed(windowSize));
+                }
+            }
+            case OPEN -> { } // kommt nicht vor: im Zustand OPEN wird nichts ausgeführt
+        }
+    }
+
+    public Phase phase() {
+        return state.get().phase();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        State current = state.get();
+        String window = current.window() == null ? "" : String.format(", window=%d calls, %d failed, %d slow",
+                current.window().calls.get(), current.window().failures.get(), current.window().slowCalls.get());
+        return name + "[" + current.phase() + window + ", rejected=" + rejected.sum() + "]";
+    }
+}
@@ -0,0 +1,120 @@
+package main;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Durchsatz und Latenz von Requests, während der Order-Service ausgefallen ist.
+ *
+ * Jeder Request entspricht loadUserAndOrders() aus StructuredScopeErrorExample:
+ * ShutdownOnFailure-Scope mit loadUser() (50 ms) und loadOrders() (300 ms, dann Fehler).
+ *
+ * Varianten:
+ *  - UNPROTECTED: jeder Request wartet 300 ms auf den Fehler
+ *  - BREAKER:     Circuit Breaker + Bulkhead, nach dem Öffnen scheitern Requests sofort;
+ *                 alle 500 ms läuft ein Probe-Aufruf (HALF_OPEN), der wieder 300 ms kostet
+ *
+ * Ausgabe als CSV: variant,clients,requests,requestsPerSecond,meanMs,p50Ms,p99Ms,rejected
+ *
+ * Start:  java --enable-preview main.CircuitBreakerBenchmark [clients] [sekunden]
+ */
+public class CircuitBreakerBenchmark {
+
+    enum Variant { UNPROTECTED, BREAKER }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("variant,clients,requests,requestsPerSecond,meanMs,p50Ms,p99Ms,rejected");
+        for (Variant variant : Variant.values()) {
+            System.out.println(run(variant, clients, seconds));
+        }
+    }
+
+    static String run(Variant variant, int clients, int seconds) throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("orders", 50, 20, 0.5, 0.8,
+                Duration.ofSeconds(1), Duration.ofMillis(500), 1);
+        Bulkhead bulkhead = new Bulkhead("orders", 50);
+        Callable<String> orders = variant == Variant.BREAKER
+                ? bulkhead.decorate(breaker.decorate(CircuitBreakerBenchmark::loadOrders))
+                : CircuitBreakerBenchmark::loadOrders;
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LongAdder requests = new LongAdder();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+
+        Thread[] threads = new Thread[clients];
+        long begin = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            latencies[id] = new long[1 << 16];
+            threads[c] = Thread.ofVirtual().start(() -> {
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        request(orders);
+                    } catch (Exception expected) {
+                        // Order-Service ist die ganze Zeit down
+                    }
+                    if (n < latencies[id].length) {
+                        latencies[id][n] = System.nanoTime() - start;
+                    }
+                    n++;
+                    requests.increment();
+                }
+                counts[id] = Math.min(n, latencies[id].length);
+            });
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = new long[Arrays.stream(counts).sum()];
+        int pos = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, pos, counts[c]);
+            pos += counts[c];
+        }
+        Arrays.sort(all);
+        double mean = Arrays.stream(all).average().orElse(0) / 1e6;
+
+        return String.format("%s,%d,%d,%.0f,%.3f,%.3f,%.3f,%d", variant, clients, requests.sum(),
+                requests.sum() * 1e9 / elapsed, mean, percentile(all, 50), percentile(all, 99),
+                breaker.rejected() + bulkhead.rejected());
+    }
+
+    private static String request(Callable<String> orders) throws Exception {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            var user = scope.fork(CircuitBreakerBenchmark::loadUser);
+            var ordersTask = scope.fork(orders);
+            scope.join();
+            scope.throwIfFailed();
+            return user.get() + ": " + ordersTask.get();
+        }
+    }
+
+    private static String loadUser() throws InterruptedException {
+        Thread.sleep(50);
+        return "Alice";
+    }
+
+    private static String loadOrders() throws InterruptedException {
+        Thread.sleep(300);
+        throw new IllegalStateException("Order-Service nicht erreichbar");
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,102 @@
+package main;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Lokaler Ersatz für den Order-Service aus StructuredScopeErrorExample.
+ *
+ * - connect() dauert etwas (Verbindungsaufbau) und schlägt fehl, solange
+ *   der Service "nicht erreichbar" ist
+ * - jede Abfrage blockiert für queryLatency (simuliert IO)
+ * - ein kleiner Anteil der Verbindungen geht "kaputt" -> Validierung im Pool schlägt fehl
+ * - zählt offene Verbindungen, damit sich prüfen lässt, dass der Pool die Last begrenzt
+ */
+public class FakeOrderService {
+
+    private final Duration connectLatency;
+    private final Duration queryLatency;
+    private final double breakProbability;
+    private volatile boolean reachable = true;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+
+    public FakeOrderService(Duration connectLatency, Duration queryLatency, double breakProbability) {
+        this.connectLatency = connectLatency;
+        this.queryLatency = queryLatency;
+        this.breakProbability = breakProbability;
+    }
+
+    public void setReachable(boolean reachable) {
+        this.reachable = reachable;
+    }
+
+    public Connection connect() throws InterruptedException {
+        Thread.sleep(connectLatency);
+        if (!reachable) {
+            throw new IllegalStateException("Order-Service nicht erreichbar");
+        }
+        peakConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+        return new Connection();
+    }
+
+    public int openConnections() {
+        return openConnections.get();
+    }
+
+    public int peakConnections() {
+        return peakConnections.get();
+    }
+
+    public final class Connection {
+
+        private volatile boolean open = true;
+        private volatile boolean broken;
+
+        public String loadOrders(String user) throws InterruptedException {
+            if (!open || broken) {
+                throw new IllegalStateException("Verbindung unbrauchbar");
+            }
+            Thread.sleep(queryLatency);
+            if (ThreadLocalRandom.current().nextDouble() < breakProbability) {
+                broken = true; // z.B. vom Server geschlossen, merkt man erst beim nächsten Mal
+            }
+            return "3 offene Bestellungen für " + user;
+        }
+
+        public boolean isValid() {
+            return open && !broken && reachable;
+        }
+
+        public void close() {
+            if (open) {
+                open = false;
+                openConnections.decrementAndGet();
+            }
+        }
+    }
+
+    /*
+     * Passende Factory für ResourcePool.
+     */
+    public ResourcePool.ResourceFactory<Connection> poolFactory() {
+        return new ResourcePool.ResourceFactory<>() {
+            @Override
+            public Connection create() throws InterruptedException {
+                return connect();
+            }
+
+            @Override
+            public boolean validate(Connection connection) {
+                return connection.isValid();
+            }
+
+            @Override
+            public void destroy(Connection connection) {
+                connection.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,353 @@
+package main;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Generischer Pool für verbindungsähnliche Ressourcen (z.B. DB- oder HTTP-Verbindungen).
+ *
+ * Wenn ein Downstream "nicht erreichbar" ist (siehe StructuredScopeErrorExample),
+ * steckt in der Praxis oft ein erschöpfter Pool dahinter: alle Verbindungen
+ * sind belegt und die Aufrufer warten, bis ihr Timeout abläuft.
+ *
+ * Aufbau:
+ *  - faire Semaphore (FIFO) mit maxSize Permits: wer zuerst wartet, kommt zuerst dran
+ *  - freie Ressourcen in einer lockfreien Deque (zuletzt benutzte zuerst -> "warme" Verbindungen)
+ *  - Validierung beim Ausleihen, ungültige Ressourcen werden verworfen und ersetzt
+ *  - Hintergrund-Thread schließt Ressourcen, die länger als idleTimeout unbenutzt sind,
+ *    hält aber immer mindestens minSize bereit
+ *
+ * KEIN synchronized: Semaphore basiert auf AbstractQueuedSynchronizer,
+ * wartende virtuelle Threads geben ihren Carrier frei (kein Pinning).
+ *
+ * Vorteile:
+ *  - begrenzt die Last auf den Downstream hart auf maxSize
+ *  - faire Wartezeiten, kein Verhungern einzelner Aufrufer
+ * Nachteile:
+ *  - faire Semaphore ist etwas langsamer als eine unfaire (kein "Barging")
+ *  - bei vielen virtuellen Threads wird der Pool selbst zum Engpass -> Wartezeiten beobachten!
+ */
+public class ResourcePool<R> implements AutoCloseable {
+
+    /*
+     * Erzeugt, prüft und schließt die Ressourcen des Pools.
+     */
+    public interface ResourceFactory<R> {
+        R create() throws Exception;
+
+        boolean validate(R resource);
+
+        void destroy(R resource);
+    }
+
+    private static final class Entry<R> {
+        final R resource;
+        volatile long lastReturnedNanos = System.nanoTime();
+
+        Entry(R resource) {
+            this.resource = resource;
+        }
+    }
+
+    private final ResourceFactory<R> factory;
+    private final int minSize;
+    private final int maxSize;
+    private final Duration idleTimeout;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Entry<R>> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Thread evictor;
+    private volatile boolean closed;
+
+    // Messwerte
+    private final WaitHistogram waitNanos = new WaitHistogram();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    public ResourcePool(ResourceFactory<R> factory, int minSize, int maxSize,
+                        Duration idleTimeout, Duration evictionInterval) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("require 0 <= minSize <= maxSize, maxSize >= 1");
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.permits = new Semaphore(maxSize, true);
+
+        fillToMinimum();
+        this.evictor = Thread.ofVirtual().name("pool-evictor").start(() -> {
+            while (!closed) {
+                try {
+                    Thread.sleep(evictionInterval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                evictIdle();
+                fillToMinimum();
+            }
+        });
+    }
+
+    /*
+     * Ausgeliehene Ressource. close() gibt sie zurück (try-with-resources).
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Entry<R> entry;
+        private final long borrowedNanos = System.nanoTime();
+        private boolean broken;
+        private boolean returned;
+
+        private Lease(Entry<R> entry) {
+            this.entry = entry;
+        }
+
+        public R get() {
+            return entry.resource;
+        }
+
+        // Ressource ist kaputt -> beim Zurückgeben schließen statt wiederverwenden
+        public void invalidate() {
+            broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (returned) {
+                return;
+            }
+            returned = true;
+            busyNanos.add(System.nanoTime() - borrowedNanos);
+            inUse.decrementAndGet();
+            if (broken || closed) {
+                destroy(entry);
+            } else {
+                entry.lastReturnedNanos = System.nanoTime();
+                idle.offerFirst(entry);
+            }
+            permits.release();
+        }
+    }
+
+    /*
+     * Leiht eine Ressource aus. Wartet höchstens timeout (FIFO-fair).
+     * @throws TimeoutException wenn in dieser Zeit keine Ressource frei wurde
+     */
+    public Lease acquire(Duration timeout) throws InterruptedException, TimeoutException {
+        if (closed) {
+            throw new IllegalStateException("pool closed");
+        }
+        long t0 = System.nanoTime();
+        // tryAcquire MIT Timeout respektiert die Fairness (ohne Timeout nicht!)
+        boolean granted = permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        waitNanos.record(System.nanoTime() - t0);
+        if (!granted) {
+            timeouts.increment();
+            throw new TimeoutException("no resource available within " + timeout.toMillis() + " ms"
+                    + " (in use: " + inUse.get() + "/" + maxSize + ")");
+        }
+
+        try {
+            Entry<R> entry = borrowValid();
+            peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            return new Lease(entry);
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Wer ein Permit hält, bekommt garantiert eine Ressource: aus der Deque oder neu erzeugt
+    private Entry<R> borrowValid() {
+        Entry<R> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (factory.validate(entry.resource)) {
+                return entry;
+            }
+            validationFailures.increment();
+            destroy(entry);
+        }
+        return createEntry();
+    }
+
+    private Entry<R> createEntry() {
+        try {
+            Entry<R> entry = new Entry<>(factory.create());
+            total.incrementAndGet();
+            created.increment();
+            return entry;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("could not create resource", e);
+        }
+    }
+
+    private void destroy(Entry<R> entry) {
+        total.decrementAndGet();
+        destroyed.increment();
+        try {
+            factory.destroy(entry.resource);
+        } catch (RuntimeException e) {
+            // Fehler beim Schließen ändern nichts mehr am Pool
+        }
+    }
+
+    // Älteste freie Ressourcen liegen hinten in der Deque
+    private void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<Entry<R>> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            Entry<R> entry = it.next();
+            if (now - entry.lastReturnedNanos < idleTimeout.toNanos()) {
+                break; // alle weiter vorne sind jünger
+            }
+            // removeLastOccurrence ist atomar: nur EIN Thread bekommt den Eintrag
+            if (idle.removeLastOccurrence(entry)) {
+                destroy(entry);
+            }
+        }
+    }
+
+    // Nur mit freiem Permit auffüllen – sonst könnte der Pool über maxSize wachsen
+    private void fillToMinimum() {
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                idle.offerLast(createEntry());
+            } catch (RuntimeException e) {
+                return; // Downstream nicht erreichbar -> beim nächsten Durchlauf erneut
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public Stats stats() {
+        long elapsed = System.nanoTime() - startNanos;
+        return new Stats(maxSize, total.get(), inUse.get(), peakInUse.get(),
+                (double) busyNanos.sum() / ((double) elapsed * maxSize),
+                created.sum(), destroyed.sum(), validationFailures.sum(), timeouts.sum(),
+                permits.getQueueLength(), waitNanos.snapshot());
+    }
+
+    public record Stats(int maxSize, int total, int inUse, int peakInUse, double utilization,
+                        long created, long destroyed, long validationFailures, long timeouts,
+                        int waiting, WaitHistogram.Snapshot waitNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("total=%d/%d, inUse=%d, peak=%d, utilization=%.0f%%, created=%d, destroyed=%d, "
+                            + "invalid=%d, timeouts=%d, waiting=%d, wait: %s",
+                    total, maxSize, inUse, peakInUse, utilization * 100, created, destroyed,
+                    validationFailures, timeouts, waiting, waitNanos);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.interrupt();
+        Entry<R> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Wartezeit-Histogramm, log-linear: jede Zweierpotenz ist in 8 Sub-Buckets
+    // geteilt -> Genauigkeit ca. 12 % statt Faktor 2 (Prinzip wie HdrHistogram)
+    // ------------------------------------------------------------
+    public static final class WaitHistogram {
+
+        private static final int SUB_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+
+        void record(long nanos) {
+            long v = Math.max(0, nanos);
+            counts.getAndIncrement(bucketOf(v));
+            sum.add(v);
+        }
+
+        static int bucketOf(long v) {
+            if (v < SUB_BUCKETS) {
+                return (int) v;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // größter Wert, der noch in diesen Bucket fällt
+        static long upperBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        Snapshot snapshot() {
+            long[] c = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                c[i] = counts.get(i);
+            }
+            return new Snapshot(c, sum.sum());
+        }
+
+        public record Snapshot(long[] bucketCounts, long sumNanos) {
+
+            public long count() {
+                long count = 0;
+                for (long c : bucketCounts) {
+                    count += c;
+                }
+                return count;
+            }
+
+            // Obergrenze des Buckets, in dem das Perzentil liegt
+            public long percentileUpperBoundNanos(double percentile) {
+                long target = (long) Math.ceil(count() * percentile / 100.0);
+                long seen = 0;
+                for (int b = 0; b < bucketCounts.length; b++) {
+                    seen += bucketCounts[b];
+                    if (seen >= target && seen > 0) {
+                        return upperBoundOf(b);
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            public String toString() {
+                long count = count();
+                return String.format("n=%d, mean=%.2f ms, p50<=%.2f ms, p99<=%.2f ms, max<=%.2f ms", count,
+                        count == 0 ? 0 : sumNanos / 1e6 / count,
+                        percentileUpperBoundNanos(50) / 1e6, percentileUpperBoundNanos(99) / 1e6,
+                        percentileUpperBoundNanos(100) / 1e6);
+            }
+        }
+    }
+}
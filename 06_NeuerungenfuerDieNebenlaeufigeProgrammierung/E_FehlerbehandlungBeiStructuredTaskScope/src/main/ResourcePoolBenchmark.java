@@ -0,0 +1,90 @@
+package main;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+ * 100.000 virtuelle Threads gegen einen Pool mit 50 Verbindungen.
+ *
+ * Lauf 1: großzügiges Timeout -> alle kommen dran, Wartezeit wächst mit der Queue
+ * Lauf 2: kurzes Timeout      -> so sieht "Order-Service nicht erreichbar" in der Praxis aus
+ * Danach: Leerlauf, bis der Evictor den Pool auf minSize verkleinert hat.
+ *
+ * Zusätzlich werden "jdk.VirtualThreadPinned"-Events gezählt (Schwelle 0 ms).
+ * Der Pool verwendet kein synchronized, erwartet wird also 0.
+ *
+ * Start:  java --enable-preview main.ResourcePoolBenchmark [threads] [poolSize] [queryMs]
+ */
+public class ResourcePoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int queryMs = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        FakeOrderService service = new FakeOrderService(Duration.ofMillis(20), Duration.ofMillis(queryMs), 0.001);
+
+        LongAdder pinned = new LongAdder();
+        try (RecordingStream jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            jfr.onEvent("jdk.VirtualThreadPinned", e -> pinned.increment());
+            jfr.startAsync();
+
+            // je Lauf ein frischer Pool, damit die Messwerte nicht vermischt werden
+            try (var pool = newPool(service, poolSize)) {
+                run("langes Timeout", pool, threads, Duration.ofMinutes(5));
+            }
+            try (var pool = newPool(service, poolSize)) {
+                run("Timeout 200 ms", pool, threads / 5, Duration.ofMillis(200));
+
+                System.out.println("Service: max. gleichzeitige Verbindungen = " + service.peakConnections());
+                Thread.sleep(2_000); // Leerlauf: Evictor schließt ungenutzte Verbindungen
+                System.out.println("Nach Leerlauf: " + service.openConnections() + " offene Verbindungen");
+            }
+            System.out.println("Pinned-Events: " + pinned.sum());
+        }
+    }
+
+    static ResourcePool<FakeOrderService.Connection> newPool(FakeOrderService service, int poolSize) {
+        return new ResourcePool<>(service.poolFactory(), 5, poolSize, Duration.ofSeconds(1), Duration.ofMillis(200));
+    }
+
+    static void run(String name, ResourcePool<FakeOrderService.Connection> pool, int threads, Duration timeout)
+            throws InterruptedException {
+        LongAdder ok = new LongAdder();
+        LongAdder timedOut = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        long begin = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < threads; i++) {
+                String user = "user-" + i;
+                executor.submit(() -> {
+                    try (var lease = pool.acquire(timeout)) {
+                        try {
+                            lease.get().loadOrders(user);
+                            ok.increment();
+                        } catch (IllegalStateException e) {
+                            lease.invalidate(); // kaputte Verbindung nicht zurück in den Pool
+                            failed.increment();
+                        }
+                    } catch (TimeoutException e) {
+                        timedOut.increment();
+                    }
+                    return null;
+                });
+            }
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+
+        System.out.printf("%s: %d Threads in %d ms (%.0f/s), ok=%d, timeout=%d, fehler=%d%n",
+                name, threads, elapsedMs, threads * 1000.0 / Math.max(1, elapsedMs),
+                ok.sum(), timedOut.sum(), failed.sum());
+        System.out.println("  Pool: " + pool.stats());
+    }
+}
@@ -1,8 +1,15 @@
 package main;
+import java.time.Duration;
 import java.util.concurrent.StructuredTaskScope;
 
 public class StructuredScopeErrorExample {
 
+    // Schutz für den Order-Service: ab 3 Aufrufen mit >= 50 % Fehlern 2 s offen,
+    // höchstens 20 gleichzeitige Aufrufe
+    private static final CircuitBreaker ORDERS_BREAKER = new CircuitBreaker("orders",
+            10, 3, 0.5, 0.8, Duration.ofSeconds(1), Duration.ofSeconds(2), 1);
+    private static final Bulkhead ORDERS_BULKHEAD = new Bulkhead("orders", 20);
+
     public static void main(String[] args) {
         try {
             loadUserAndOrders();
@@ -10,6 +17,19 @@ public class StructuredScopeErrorExample {
             System.err.println("Fehler beim Laden der Daten: " + e.getMessage());
             e.printStackTrace(System.err);
         }
+
+        // Derselbe Fehler, aber hinter Circuit Breaker + Bulkhead:
+        // die ersten Requests zahlen die 300 ms, danach scheitern sie sofort
+        for (int i = 1; i <= 6; i++) {
+            long start = System.nanoTime();
+            try {
+                loadUserAndOrdersProtected();
+            } catch (Exception e) {
+                System.err.printf("Request %d nach %.3f ms: %s%n", i,
+                        (System.nanoTime() - start) / 1e6, e.getCause().getMessage());
+            }
+        }
+        System.err.println(ORDERS_BREAKER + ", " + ORDERS_BULKHEAD);
     }
 
     private static void loadUserAndOrders() throws Exception {
@@ -37,6 +57,23 @@ public class StructuredScopeErrorExample {
         }
     }
 
+    private static void loadUserAndOrdersProtected() throws Exception {
+
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+
+            var userTask = scope.fork(() -> loadUser());
+            // Bulkhead außen, Breaker innen: abgelehnte Aufrufe zählen nicht als Downstream-Fehler
+            var ordersTask = scope.fork(ORDERS_BULKHEAD.decorate(
+                    ORDERS_BREAKER.decorate(() -> loadOrdersWithError())));
+
+            scope.join();
+            scope.throwIfFailed(); // bei offenem Breaker: CallNotPermittedException, loadUser() wurde abgebrochen
+
+            System.out.println("User:   " + userTask.get());
+            System.out.println("Orders: " + ordersTask.get());
+        }
+    }
+
     private static String loadUser() throws InterruptedException {
         System.out.println("loadUser() gestartet in " + Thread.currentThread());
         Thread.sleep(500); // simuliert IO
@@ -48,6 +85,8 @@ public class StructuredScopeErrorExample {
         System.out.println("loadOrdersWithError() gestartet in " + Thread.currentThread());
         Thread.sleep(300); // simuliert IO
         System.out.println("loadOrdersWithError() wirft Exception");
+        // Typische Ursache in der Praxis: erschöpfter Verbindungs-Pool,
+        // siehe ResourcePool und ResourcePoolBenchmark.
         throw new RuntimeException("Order-Service nicht erreichbar");
     }
 }
@@ -0,0 +1,264 @@
+package main;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Asynchroner Logger als Ersatz für System.out.println auf heißen Pfaden.
+ *
+ * Problem mit System.out.println:
+ *  - alle Threads serialisieren sich an EINEM Lock des PrintStream
+ *  - das blockierende write() läuft im Thread des Aufrufers –
+ *    bei virtuellen Threads also auf dem Carrier
+ *
+ * Aufbau:
+ *  - Ring-Puffer mit vorab angelegten Slots (keine Allokation pro Log-Aufruf)
+ *  - viele Produzenten: Slot per CAS auf einen Sequenz-Zähler reservieren,
+ *    Felder als REFERENZEN hineinschreiben (kein String-Zusammenbau),
+ *    dann per volatile-Write veröffentlichen
+ *  - EIN Konsument (Plattform-Thread): formatiert in einen wiederverwendeten
+ *    Puffer und schreibt gebündelt über einen FileChannel
+ *  - ohne Arbeit schläft der Konsument (park); ein Produzent weckt ihn nur,
+ *    wenn er wirklich schläft (volatile-Flag statt unpark() bei jedem Aufruf)
+ *
+ * Wenn der Puffer voll ist, entscheidet die Policy:
+ *  - DROP:   Eintrag verwerfen (zählt "dropped")
+ *  - BLOCK:  warten, bis Platz ist (parkNanos – pinnt keinen virtuellen Thread)
+ *  - SAMPLE: nur jeden n-ten Eintrag behalten (und dafür warten), den Rest verwerfen
+ *
+ * Schlägt das Schreiben fehl (IOException), nimmt der Logger nichts mehr an:
+ * log() liefert false, der Konsument leert den Puffer ohne zu schreiben –
+ * so bleibt auch kein BLOCK-Produzent hängen. Der Fehler steht in failure().
+ */
+public class AsyncLogger implements AutoCloseable {
+
+    public enum OverflowPolicy { DROP, BLOCK, SAMPLE }
+
+    // Ein Slot im Ring – wird immer wieder überschrieben
+    private static final class Slot {
+        String requestId;
+        String user;
+        String message;
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private final Slot[] slots;
+    private final int mask;
+    // published[i] = Sequenznummer, die in Slot i fertig geschrieben wurde
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1; // bis hier sind die Slots wieder frei
+    private volatile long written = -1;  // bis hier ist alles im Channel (oder nach einem Fehler verworfen)
+    private volatile boolean idle;       // Konsument schläft oder ist kurz davor
+
+    private final OverflowPolicy policy;
+    private final int sampleEvery;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflowCounter = new AtomicLong();
+
+    private final WritableByteChannel channel;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    public AsyncLogger(WritableByteChannel channel, int capacityPowerOfTwo,
+                       OverflowPolicy policy, int sampleEvery) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.slots = new Slot[capacityPowerOfTwo];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacityPowerOfTwo - 1;
+        this.published = new AtomicLongArray(capacityPowerOfTwo);
+        for (int i = 0; i < capacityPowerOfTwo; i++) {
+            published.set(i, -1);
+        }
+        this.policy = policy;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.channel = channel;
+        this.consumer = Thread.ofPlatform().name("async-logger").daemon().start(this::consumeLoop);
+    }
+
+    public static AsyncLogger toStdout(OverflowPolicy policy) {
+        return new AsyncLogger(new FileOutputStream(FileDescriptor.out).getChannel(), 1 << 14, policy, 100);
+    }
+
+    public static AsyncLogger toFile(Path file, OverflowPolicy policy) throws IOException {
+        return new AsyncLogger(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND), 1 << 14, policy, 100);
+    }
+
+    // ------------------------------------------------------------
+    // Produzenten-Seite
+    // ------------------------------------------------------------
+
+    /*
+     * Gleiches Format wie log() in ScopedValueStructuredScopeExample:
+     * "[requestId] user=... | message"
+     * @return false, wenn der Eintrag wegen Überlauf verworfen wurde
+     */
+    public boolean log(String requestId, String user, String message) {
+        if (failure != null) {
+            dropped.increment();
+            return false;
+        }
+        long seq = claim();
+        if (seq < 0) {
+            dropped.increment();
+            return false;
+        }
+        Slot slot = slots[(int) (seq & mask)];
+        slot.requestId = requestId;
+        slot.user = user;
+        slot.message = message;
+        published.set((int) (seq & mask), seq); // veröffentlichen (volatile write)
+        if (idle) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    private long claim() {
+        boolean mustWait = policy == OverflowPolicy.BLOCK;
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - consumed > slots.length) {
+                // Puffer voll
+                if (!mustWait) {
+                    if (policy == OverflowPolicy.DROP
+                            || overflowCounter.incrementAndGet() % sampleEvery != 0) {
+                        return -1;
+                    }
+                    mustWait = true; // SAMPLE: dieser Eintrag wird behalten
+                }
+                LockSupport.parkNanos(10_000);
+                continue;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Konsumenten-Seite (ein einziger Thread)
+    // ------------------------------------------------------------
+    private void consumeLoop() {
+        StringBuilder text = new StringBuilder(BATCH_SIZE * 128);
+        // kaputte Surrogate in einer Nachricht ersetzen statt den Logger anzuhalten
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BATCH_SIZE * 256);
+
+        while (running || consumed < claimed.get()) {
+            int n = 0;
+            long next = consumed + 1;
+            while (n < BATCH_SIZE && published.get((int) (next & mask)) == next) {
+                Slot slot = slots[(int) (next & mask)];
+                text.append('[').append(slot.requestId).append("] user=")
+                        .append(slot.user).append(" | ").append(slot.message).append('\n');
+                slot.requestId = slot.user = slot.message = null; // Referenzen freigeben
+                consumed = next; // Slot ist wieder frei
+                next++;
+                n++;
+            }
+            if (n == 0) {
+                idle = true;
+                // erneut prüfen: ein Produzent kann veröffentlicht haben, bevor er idle = true sah
+                // (volatile auf beiden Seiten -> einer von beiden sieht den anderen)
+                if (published.get((int) (next & mask)) != next && running) {
+                    LockSupport.park();
+                }
+                idle = false;
+                continue;
+            }
+            if (failure == null) {
+                try {
+                    write(text, encoder, bytes);
+                } catch (IOException e) {
+                    failure = e; // ab jetzt nur noch verwerfen
+                }
+            }
+            text.setLength(0);
+            written = next - 1; // erst jetzt darf flush() zurückkehren
+        }
+    }
+
+    private void write(StringBuilder text, CharsetEncoder encoder, ByteBuffer bytes) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            drain(bytes);
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(bytes); // restliche Bytes des Encoders
+            drain(bytes);
+        } while (result.isOverflow());
+    }
+
+    private void drain(ByteBuffer bytes) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /*
+     * Wartet, bis alle bisher geloggten Einträge geschrieben sind.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (written < target) {
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /*
+     * Fehler beim Schreiben, oder null, solange alles geschrieben werden konnte.
+     */
+    public IOException failure() {
+        return failure;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package main;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+ * println vs. AsyncLogger unter vielen virtuellen Threads.
+ *
+ * Beide Varianten schreiben in eine temporäre Datei (damit die Konsole
+ * nicht der Engpass ist). Gemessen werden:
+ *  - Zeilen pro Sekunde
+ *  - Anzahl "jdk.VirtualThreadPinned"-Events (Schwelle 0 ms) während des Laufs
+ *
+ * Hinweis: Seit JDK 21 nutzt PrintStream intern einen ReentrantLock statt
+ * synchronized, solange es nicht abgeleitet wird. Der größte Effekt ist daher
+ * die Serialisierung am Lock und das blockierende write() im Thread des
+ * Aufrufers, nicht unbedingt Pinning. Genau das zeigen die Zahlen.
+ *
+ * Start:  java --enable-preview main.AsyncLoggingBenchmark [threads] [zeilenProThread]
+ */
+public class AsyncLoggingBenchmark {
+
+    interface Sink {
+        void log(String requestId, String user, String message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int linesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        System.out.println("variant,threads,lines,linesPerSecond,pinnedEvents,dropped");
+
+        Path file = Files.createTempFile("println", ".log");
+        try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true)) {
+            run("println", threads, linesPerThread,
+                    (id, user, msg) -> out.println("[" + id + "] user=" + user + " | " + msg), () -> 0L);
+        }
+        Files.delete(file);
+
+        for (AsyncLogger.OverflowPolicy policy : AsyncLogger.OverflowPolicy.values()) {
+            file = Files.createTempFile("async", ".log");
+            try (AsyncLogger logger = AsyncLogger.toFile(file, policy)) {
+                run("async-" + policy, threads, linesPerThread, logger::log, logger::dropped);
+                logger.flush();
+            }
+            Files.delete(file);
+        }
+    }
+
+    static void run(String name, int threads, int linesPerThread, Sink sink,
+                    LongSupplier dropped) throws InterruptedException {
+        LongAdder pinned = new LongAdder();
+        try (RecordingStream jfr = new RecordingStream()) {
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            jfr.onEvent("jdk.VirtualThreadPinned", e -> pinned.increment());
+            jfr.startAsync();
+
+            Thread[] workers = new Thread[threads];
+            long begin = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                String requestId = "req-" + t;
+                workers[t] = Thread.ofVirtual().start(() -> {
+                    for (int i = 0; i < linesPerThread; i++) {
+                        sink.log(requestId, "alice", "Starte loadUserProfile()");
+                    }
+                });
+            }
+            for (Thread w : workers) {
+                w.join();
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            Thread.sleep(1_500); // JFR liefert Events gebündelt
+            long lines = (long) threads * linesPerThread;
+            System.out.printf("%s,%d,%d,%.0f,%d,%d%n", name, threads, lines,
+                    lines * 1e9 / elapsed, pinned.sum(), dropped.getAsLong());
+        }
+    }
+}
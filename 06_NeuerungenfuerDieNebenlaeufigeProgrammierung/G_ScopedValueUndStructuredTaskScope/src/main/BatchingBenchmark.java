@@ -0,0 +1,106 @@
+package main;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Unbatched vs. gebündelt gegen einen lokalen "Bestell-Service".
+ *
+ * Der Stand-in-Service verhält sich wie ein typischer Remote-Dienst:
+ *  - fester Overhead pro Aufruf (Roundtrip, Verbindung, Parsing)
+ *  - kleiner Zusatzaufwand pro Schlüssel
+ *  - begrenzte Anzahl gleichzeitiger Verbindungen
+ *
+ * Jeder der N virtuellen Threads lädt die offenen Bestellungen "seines" Users.
+ * Ausgabe: Durchsatz (Requests/s) und Latenz (p50/p99) je Variante.
+ *
+ * Start:  java main.BatchingBenchmark [requests] [verbindungen]
+ */
+public class BatchingBenchmark {
+
+    static final long CALL_OVERHEAD_MICROS = 2_000;
+    static final long PER_KEY_MICROS = 10;
+
+    static Semaphore connections;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        connections = new Semaphore(args.length > 1 ? Integer.parseInt(args[1]) : 20);
+
+        System.out.println("variant,requests,requestsPerSecond,p50Ms,p99Ms,serviceCalls");
+
+        long[] unbatched = new long[requests];
+        LongAdder calls = new LongAdder();
+        double rps = run(requests, unbatched, key -> {
+            calls.increment();
+            return orderService(Set.of(key)).get(key);
+        });
+        print("unbatched", requests, rps, unbatched, calls.sum());
+
+        for (int batchSize : new int[]{16, 128}) {
+            long[] batched = new long[requests];
+            try (var loader = new BatchingLoader<String, String>(
+                    BatchingBenchmark::orderService, batchSize, Duration.ofMillis(1))) {
+                rps = run(requests, batched, loader::load);
+                print("batched(max=" + batchSize + ")", requests, rps, batched, loader.stats().batches());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Lookup {
+        String load(String key) throws Exception;
+    }
+
+    static double run(int requests, long[] latencies, Lookup lookup) throws InterruptedException {
+        Thread[] threads = new Thread[requests];
+        long begin = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int id = i;
+            threads[i] = Thread.ofVirtual().start(() -> {
+                long start = System.nanoTime();
+                try {
+                    lookup.load("user-" + id);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    latencies[id] = System.nanoTime() - start;
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return requests * 1e9 / (System.nanoTime() - begin);
+    }
+
+    // Stand-in für den entfernten Bestell-Service
+    static Map<String, String> orderService(Set<String> usernames) throws InterruptedException {
+        connections.acquire();
+        try {
+            LockSupport.parkNanos((CALL_OVERHEAD_MICROS + PER_KEY_MICROS * usernames.size()) * 1_000);
+            Map<String, String> result = new HashMap<>();
+            for (String user : usernames) {
+                result.put(user, "Bestellungen[2 offen]");
+            }
+            return result;
+        } finally {
+            connections.release();
+        }
+    }
+
+    static void print(String variant, int requests, double rps, long[] latencies, long serviceCalls) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s,%d,%.0f,%.2f,%.2f,%d%n", variant, requests, rps,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6,
+                serviceCalls);
+    }
+}
@@ -0,0 +1,228 @@
+package main;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Automatisches Bündeln (Batching) von Einzelabfragen.
+ *
+ * Viele virtuelle Threads rufen load(key) auf. Statt für jeden Schlüssel
+ * einen eigenen Remote-Aufruf zu machen, sammelt ein Dispatcher-Thread die
+ * Schlüssel
+ *  - höchstens "window" lang (ab dem ersten Schlüssel) oder
+ *  - bis "maxBatchSize" Schlüssel zusammen sind
+ * und schickt sie in EINEM Bulk-Aufruf los. Jedes Ergebnis geht an den
+ * wartenden Aufrufer zurück.
+ *
+ * Fehler sind pro Schlüssel isoliert:
+ *  - fehlt ein Schlüssel in der Antwort, schlägt nur dieser fehl
+ *  - scheitert der ganze Bulk-Aufruf, werden die Schlüssel einzeln
+ *    nachgeladen – ein "giftiger" Schlüssel reißt die anderen nicht mit
+ *  - scheitern dabei MAX_FALLBACK_FAILURES Einzelaufrufe, gilt der Downstream als
+ *    gestört: die restlichen Schlüssel schlagen sofort fehl, statt einen kaputten
+ *    Downstream mit bis zu maxBatchSize Einzelaufrufen zusätzlich zu belasten
+ *  - ein Error (OutOfMemoryError, StackOverflowError, ...) wird nicht einzeln
+ *    wiederholt, sondern an alle Aufrufer des Batches weitergegeben
+ *
+ * Vorteile:
+ *  - Overhead pro Aufruf (Verbindung, Serialisierung, Roundtrip) fällt nur einmal an
+ * Nachteile:
+ *  - jeder Aufrufer wartet bis zu "window" zusätzlich
+ */
+public class BatchingLoader<K, V> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        Map<K, V> loadAll(Set<K> keys) throws Exception;
+    }
+
+    private record Request<K, V>(K key, CompletableFuture<V> result) {}
+
+    // so viele fehlgeschlagene Einzelaufrufe, dann wird der Rest des Batches aufgegeben
+    private static final int MAX_FALLBACK_FAILURES = 2;
+
+    private final BulkLoader<K, V> bulkLoader;
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    private final BlockingQueue<Request<K, V>> pending = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder fallbackCalls = new LongAdder();
+
+    public BatchingLoader(BulkLoader<K, V> bulkLoader, int maxBatchSize, Duration window) {
+        this.bulkLoader = bulkLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.dispatcher = Thread.ofVirtual().name("batching-dispatcher").start(this::dispatchLoop);
+    }
+
+    public V load(K key) throws ExecutionException, InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("BatchingLoader ist geschlossen");
+        }
+        requests.increment();
+        Request<K, V> request = new Request<>(key, new CompletableFuture<>());
+        pending.add(request);
+        // close() kann zwischen der Prüfung oben und add() gelaufen sein und die Queue
+        // schon geleert haben -> nicht ewig warten. Wer den Request aus der Queue holt,
+        // beendet ihn (close(), Dispatcher oder hier).
+        if (closed && pending.remove(request)) {
+            failClosed(request);
+        }
+        return request.result().get();
+    }
+
+    private void dispatchLoop() {
+        while (!closed) {
+            List<Request<K, V>> batch = new ArrayList<>(maxBatchSize);
+            try {
+                // Auf den ersten Schlüssel warten, dann das Fenster öffnen
+                batch.add(pending.take());
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Request<K, V> next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    pending.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                // Bulk-Aufruf in eigenem Thread – der nächste Batch kann sich schon bilden
+                Thread.ofVirtual().start(() -> dispatch(batch));
+            } catch (InterruptedException e) {
+                // close(): den schon gesammelten Teil-Batch nicht verlieren
+                batch.forEach(this::failClosed);
+                return;
+            }
+        }
+    }
+
+    private void dispatch(List<Request<K, V>> batch) {
+        batches.increment();
+
+        // Mehrere Aufrufer können denselben Schlüssel wollen
+        Map<K, List<CompletableFuture<V>>> waiters = new LinkedHashMap<>();
+        for (Request<K, V> r : batch) {
+            waiters.computeIfAbsent(r.key(), k -> new ArrayList<>()).add(r.result());
+        }
+
+        try {
+            Map<K, V> results = bulkLoader.loadAll(waiters.keySet());
+            waiters.forEach((key, futures) -> complete(key, futures, results));
+        } catch (Throwable batchFailure) {
+            // Throwable: sonst bliebe bei einem Error jeder Aufrufer des Batches für immer hängen
+            if (waiters.size() == 1 || !(batchFailure instanceof Exception)) {
+                waiters.values().forEach(fs -> fs.forEach(f -> f.completeExceptionally(batchFailure)));
+                return;
+            }
+            // Ganzer Batch fehlgeschlagen -> Schlüssel einzeln nachladen, aber begrenzt
+            int failedCalls = 0;
+            for (Map.Entry<K, List<CompletableFuture<V>>> entry : waiters.entrySet()) {
+                List<CompletableFuture<V>> futures = entry.getValue();
+                if (failedCalls >= MAX_FALLBACK_FAILURES) {
+                    futures.forEach(f -> f.completeExceptionally(batchFailure));
+                    continue;
+                }
+                fallbackCalls.increment();
+                try {
+                    complete(entry.getKey(), futures, bulkLoader.loadAll(Set.of(entry.getKey())));
+                } catch (Throwable e) {
+                    failedCalls++;
+                    futures.forEach(f -> f.completeExceptionally(e));
+                }
+            }
+        }
+    }
+
+    private void complete(K key, List<CompletableFuture<V>> futures, Map<K, V> results) {
+        V value = results.get(key);
+        if (value == null) {
+            NoSuchElementException missing = new NoSuchElementException("Kein Ergebnis für " + key);
+            futures.forEach(f -> f.completeExceptionally(missing));
+        } else {
+            futures.forEach(f -> f.complete(value));
+        }
+    }
+
+    public record Stats(long requests, long batches, long fallbackCalls) {
+        public double averageBatchSize() {
+            return batches == 0 ? 0 : (double) requests / batches;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), batches.sum(), fallbackCalls.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+        // Noch wartende Aufrufer nicht hängen lassen
+        Request<K, V> r;
+        while ((r = pending.poll()) != null) {
+            failClosed(r);
+        }
+    }
+
+    private void failClosed(Request<K, V> request) {
+        request.result().completeExceptionally(new IllegalStateException("BatchingLoader geschlossen"));
+    }
+
+    // ------------------------------------------------------------
+    // Demo: 1.000 Requests laden offene Bestellungen ihres Users
+    // ------------------------------------------------------------
+    public static void main(String[] args) throws Exception {
+        try (var orders = new BatchingLoader<String, String>(
+                BatchingLoader::loadOpenOrdersBulk, 100, Duration.ofMillis(5))) {
+
+            Thread[] requests = new Thread[1_000];
+            for (int i = 0; i < requests.length; i++) {
+                String user = "user-" + i;
+                requests[i] = Thread.ofVirtual().start(() -> {
+                    try {
+                        orders.load(user);
+                    } catch (Exception e) {
+                        System.err.println(user + ": " + e.getMessage());
+                    }
+                });
+            }
+            for (Thread t : requests) {
+                t.join();
+            }
+            System.out.println(orders.stats()
+                    + String.format(" -> Ø %.1f Schlüssel pro Bulk-Aufruf", orders.stats().averageBatchSize()));
+        }
+    }
+
+    // Bulk-Variante von loadOpenOrders(): EIN Roundtrip für viele User
+    private static Map<String, String> loadOpenOrdersBulk(Set<String> usernames) throws InterruptedException {
+        Thread.sleep(50); // simuliert IO (Roundtrip)
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String user : usernames) {
+            result.put(user, "Bestellungen[2 offen] für " + user);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,243 @@
+package main;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Cache mit "Single Flight": Fragen viele Threads gleichzeitig nach demselben
+ * Schlüssel, wird der Wert nur EINMAL geladen – alle anderen warten auf
+ * dieses eine Laden ("coalesced waiters").
+ *
+ * Eigenschaften:
+ *  - fertige Werte bleiben "ttl" lang gültig
+ *  - höchstens "maxSize" Einträge; verdrängt wird der älteste Eintrag (FIFO)
+ *  - Fehler werden NICHT gecacht – der nächste Aufrufer lädt neu
+ *  - kein synchronized: gewartet wird über CompletableFuture (LockSupport.park),
+ *    virtuelle Threads werden dabei nicht gepinnt
+ *  - der Loader läuft im Thread des ersten Aufrufers, also mit dessen ScopedValues
+ *  - wird dieser Thread unterbrochen, scheitert nur er selbst; die Mitwartenden
+ *    versuchen es neu, und einer von ihnen lädt dann
+ *
+ * Wichtig: Der Schlüssel muss ALLES enthalten, wovon das Ergebnis abhängt.
+ * Liest der Loader z.B. USERNAME.get(), muss USERNAME Teil des Schlüssels sein.
+ */
+public class CoalescingCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile long expiresAtNanos = Long.MAX_VALUE; // gesetzt, sobald geladen
+
+        Entry(K key) {
+            this.key = key;
+        }
+    }
+
+    // Signal an die Mitwartenden: nicht das Laden ist fehlgeschlagen, der ladende Thread wurde unterbrochen
+    private static final class Abandoned extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Abandoned ABANDONED = new Abandoned();
+
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    // Einfügereihenfolge; kann Einträge enthalten, die schon entfernt wurden (werden beim Poll übersprungen)
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    // Metriken
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+
+    public CoalescingCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Loader<? super K, ? extends V> loader) throws ExecutionException, InterruptedException {
+        while (true) {
+            Entry<K, V> entry = entries.get(key);
+
+            if (entry != null) {
+                boolean loading = !entry.future.isDone();
+                if (!loading && System.nanoTime() >= entry.expiresAtNanos) {
+                    // abgelaufen -> entfernen und neu versuchen
+                    if (entries.remove(key, entry)) {
+                        size.decrementAndGet();
+                    }
+                    continue;
+                }
+                if (loading) {
+                    coalesced.increment(); // jemand lädt gerade -> mitwarten statt selbst zu laden
+                } else {
+                    hits.increment();
+                }
+                try {
+                    return entry.future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() != ABANDONED) {
+                        throw e;
+                    }
+                }
+                continue; // Ladender wurde unterbrochen -> neu versuchen, evtl. selbst laden
+            }
+
+            Entry<K, V> mine = new Entry<>(key);
+            if (entries.putIfAbsent(key, mine) != null) {
+                continue; // ein anderer Thread war schneller -> dessen Eintrag nutzen
+            }
+            size.incrementAndGet();
+            insertionOrder.add(mine);
+            queued.incrementAndGet();
+            evictIfNecessary();
+
+            return load(key, mine, loader);
+        }
+    }
+
+    private V load(K key, Entry<K, V> entry, Loader<? super K, ? extends V> loader)
+            throws ExecutionException, InterruptedException {
+        loads.increment();
+        long start = System.nanoTime();
+        try {
+            V value = loader.load(key);
+            entry.expiresAtNanos = System.nanoTime() + ttlNanos;
+            entry.future.complete(value);
+        } catch (Throwable t) {
+            // Fehler nicht cachen: Eintrag entfernen
+            if (entries.remove(key, entry)) {
+                size.decrementAndGet();
+            }
+            if (t instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                // Der Interrupt gilt nur diesem Aufrufer – die Mitwartenden laden neu
+                entry.future.completeExceptionally(ABANDONED);
+                if (t instanceof InterruptedException e) {
+                    throw e;
+                }
+                throw new ExecutionException(t);
+            }
+            entry.future.completeExceptionally(t); // echter Fehler: alle Wartenden erhalten ihn
+        } finally {
+            long nanos = System.nanoTime() - start;
+            totalLoadNanos.add(nanos);
+            maxLoadNanos.accumulate(nanos);
+        }
+        return entry.future.get();
+    }
+
+    /*
+     * Verdrängt die ältesten Einträge, bis maxSize eingehalten ist.
+     * Nebenbei werden veraltete Queue-Einträge (abgelaufen, invalidiert) aufgeräumt,
+     * damit die Queue nicht unbegrenzt wächst.
+     */
+    private void evictIfNecessary() {
+        int budget = queued.get(); // jeder Queue-Eintrag höchstens einmal anfassen
+        while (budget-- > 0 && (size.get() > maxSize || queued.get() > 2 * maxSize)) {
+            Entry<K, V> oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+
+            if (entries.get(oldest.key) != oldest) {
+                continue; // schon entfernt
+            }
+            // Laufende Ladevorgänge nicht verdrängen – ihre Wartenden brauchen sie noch
+            if (!oldest.future.isDone() || size.get() <= maxSize) {
+                insertionOrder.add(oldest);
+                queued.incrementAndGet();
+                continue;
+            }
+            if (entries.remove(oldest.key, oldest)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && entry.future.isDone() && entries.remove(key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    public record Stats(long hits, long loads, long coalescedWaiters, long evictions,
+                        int size, Duration averageLoad, Duration maxLoad) {
+
+        public double hitRatio() {
+            long requests = hits + loads + coalescedWaiters;
+            // Mitwartende zählen als Treffer: Sie haben kein eigenes Laden ausgelöst
+            return requests == 0 ? 0 : (double) (hits + coalescedWaiters) / requests;
+        }
+    }
+
+    public Stats stats() {
+        long l = loads.sum();
+        return new Stats(hits.sum(), l, coalesced.sum(), evictions.sum(), size.get(),
+                Duration.ofNanos(l == 0 ? 0 : totalLoadNanos.sum() / l),
+                Duration.ofNanos(maxLoadNanos.get()));
+    }
+
+    // ------------------------------------------------------------
+    // Demo: 10.000 gleichzeitige Requests für nur 3 verschiedene User
+    // ------------------------------------------------------------
+    static final ScopedValue<String> USERNAME = ScopedValue.newInstance();
+    static final LongAdder backendCalls = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        CoalescingCache<String, String> profiles = new CoalescingCache<>(Duration.ofSeconds(30), 10_000);
+        String[] users = {"alice", "bob", "carol"};
+
+        Thread[] requests = new Thread[10_000];
+        for (int i = 0; i < requests.length; i++) {
+            String user = users[i % users.length];
+            requests[i] = Thread.ofVirtual().start(() ->
+                    ScopedValue.where(USERNAME, user).run(() -> {
+                        try {
+                            profiles.get(USERNAME.get(), CoalescingCache::loadUserProfile);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }));
+        }
+        for (Thread t : requests) {
+            t.join();
+        }
+
+        System.out.println("Requests:      " + requests.length);
+        System.out.println("Backend-Calls: " + backendCalls.sum());
+        System.out.println(profiles.stats() + String.format(" hitRatio=%.4f", profiles.stats().hitRatio()));
+    }
+
+    private static String loadUserProfile(String username) throws InterruptedException {
+        backendCalls.increment();
+        Thread.sleep(300); // simuliert IO
+        return "Profil[" + username + "]";
+    }
+}
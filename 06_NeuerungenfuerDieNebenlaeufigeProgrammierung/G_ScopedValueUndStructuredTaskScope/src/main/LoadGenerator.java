@@ -0,0 +1,133 @@
+package main;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Lokaler Lastgenerator für RequestServer.
+ *
+ * "Closed Loop": N virtuelle Clients schicken jeweils Request nach Request,
+ * für eine feste Dauer. N steigt stufenweise (1, 10, 50, ...).
+ * Pro Stufe: Requests/s und Latenz-Perzentile (p50, p90, p99).
+ *
+ * Ohne URL werden beide Server-Varianten lokal gestartet und nacheinander
+ * gemessen – so lässt sich das Skalierungsversprechen von Loom auf der
+ * eigenen Hardware prüfen:
+ *  - PLATFORM mit 200 Threads: Durchsatz sättigt bei ca. 200 / 0,5 s = 400 Requests/s
+ *  - VIRTUAL: skaliert weiter mit der Anzahl Clients
+ *
+ * Hinweis: Im lokalen Modus teilen sich Clients und Server CPU und Carrier-Threads.
+ * Für belastbare Zahlen den Server separat starten (RequestServer) und hier die URL angeben,
+ * idealerweise auf einer zweiten Maschine.
+ *
+ * Start:  java --enable-preview main.LoadGenerator [url] [sekundenProStufe] [stufen]
+ *         java --enable-preview main.LoadGenerator - 5 1,10,100,500,1000
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 && !args[0].equals("-") ? args[0] : null;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] levels = Arrays.stream((args.length > 2 ? args[2] : "1,10,50,100,200,500,1000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+
+        System.out.println("server,clients,requestsPerSecond,p50Ms,p90Ms,p99Ms,errors");
+
+        if (url != null) {
+            for (int clients : levels) {
+                System.out.println(run("extern", URI.create(url), clients, seconds));
+            }
+            return;
+        }
+
+        ScopedValueStructuredScopeExample.logEnabled = false;
+        for (RequestServer.Mode mode : RequestServer.Mode.values()) {
+            try (RequestServer server = new RequestServer(mode, 0, 200).start()) {
+                URI uri = URI.create("http://localhost:" + server.port() + "/request");
+                for (int clients : levels) {
+                    System.out.println(run(mode.name(), uri, clients, seconds));
+                }
+            }
+        }
+    }
+
+    static String run(String label, URI base, int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[clients];
+        LongAdder errors = new LongAdder();
+
+        long elapsed;
+        // HttpClient und sein Executor werden pro Lauf geschlossen, sonst bleiben
+        // Verbindungen und Selector-Thread bis zum Programmende offen
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(httpExecutor)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            long begin = System.nanoTime();
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    int id = c;
+                    long[] latencies = new long[seconds * 2_000];
+                    perClient.add(latencies);
+                    workers.submit(() -> {
+                        int n = 0;
+                        while (System.nanoTime() < deadline) {
+                            // viele verschiedene User, damit nicht alles aus dem Profil-Cache kommt
+                            URI uri = URI.create(base + "?user=user-" + id + "-" + n);
+                            long start = System.nanoTime();
+                            try {
+                                HttpResponse<String> response = http.send(
+                                        HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+                                        HttpResponse.BodyHandlers.ofString());
+                                if (response.statusCode() != 200) {
+                                    errors.increment();
+                                }
+                            } catch (Exception e) {
+                                errors.increment();
+                            }
+                            if (n < latencies.length) {
+                                latencies[n] = System.nanoTime() - start;
+                            }
+                            n++;
+                        }
+                        counts[id] = Math.min(n, latencies.length);
+                        return null;
+                    });
+                }
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int pos = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, pos, counts[c]);
+            pos += counts[c];
+        }
+        Arrays.sort(all);
+
+        return String.format("%s,%d,%.1f,%.1f,%.1f,%.1f,%d", label, clients,
+                total * 1e9 / elapsed,
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), errors.sum());
+    }
+
+    static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,110 @@
+package main;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+ * HTTP-Frontend für handleRequest() mit dem JDK-eigenen HttpServer
+ * (dieselbe Basis wie der Simple Web Server aus Kapitel 07).
+ *
+ * Umschaltbarer Executor:
+ *  - VIRTUAL:  ein virtueller Thread pro Request
+ *  - PLATFORM: fester Pool aus Plattform-Threads (klassisches Modell)
+ *
+ * Pro Request werden REQUEST_ID und USERNAME als ScopedValues gebunden,
+ * danach läuft das strukturierte Fan-out aus ScopedValueStructuredScopeExample.
+ *
+ * Start:  java --enable-preview main.RequestServer [VIRTUAL|PLATFORM] [port] [poolSize]
+ * Aufruf: curl "http://localhost:8080/request?user=alice"
+ */
+public class RequestServer implements AutoCloseable {
+
+    public enum Mode { VIRTUAL, PLATFORM }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    public RequestServer(Mode mode, int port, int poolSize) throws IOException {
+        executor = switch (mode) {
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case PLATFORM -> Executors.newFixedThreadPool(poolSize);
+        };
+        server = HttpServer.create(new InetSocketAddress(port), 10_000);
+        server.createContext("/request", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public RequestServer start() {
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String user = queryParameter(exchange.getRequestURI(), "user", "anonymous");
+        String requestId = "req-" + requestCounter.incrementAndGet();
+
+        int status;
+        String body;
+        try {
+            body = ScopedValue
+                    .where(ScopedValueStructuredScopeExample.REQUEST_ID, requestId)
+                    .where(ScopedValueStructuredScopeExample.USERNAME, user)
+                    .call(ScopedValueStructuredScopeExample::handleRequest);
+            status = 200;
+        } catch (Exception e) {
+            body = "Fehler: " + e.getMessage();
+            status = 500;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String queryParameter(URI uri, String name, String fallback) {
+        String query = uri.getQuery();
+        if (query == null) {
+            return fallback;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return fallback;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Mode mode = args.length > 0 ? Mode.valueOf(args[0]) : Mode.VIRTUAL;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        ScopedValueStructuredScopeExample.logEnabled = false;
+        RequestServer server = new RequestServer(mode, port, poolSize).start();
+        System.out.println("RequestServer (" + mode + ") läuft auf http://localhost:" + server.port() + "/request?user=alice");
+    }
+}
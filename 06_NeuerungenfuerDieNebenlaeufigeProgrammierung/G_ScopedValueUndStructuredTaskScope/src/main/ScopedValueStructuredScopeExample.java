@@ -1,6 +1,6 @@
 package main;
 import java.lang.ScopedValue;
-import java.util.concurrent.StructuredTaskScope;
+import java.time.Duration;
 
 public class ScopedValueStructuredScopeExample {
 
@@ -8,22 +8,45 @@ public class ScopedValueStructuredScopeExample {
     static final ScopedValue<String> REQUEST_ID = ScopedValue.newInstance();
     static final ScopedValue<String> USERNAME   = ScopedValue.newInstance();
 
+    // Gleichzeitige Requests für denselben User teilen sich EIN Laden des Profils
+    static final CoalescingCache<String, String> PROFILES =
+            new CoalescingCache<>(Duration.ofMinutes(1), 10_000);
+
+    // Asynchrones Logging: Aufrufer schreiben nur in einen Ring-Puffer
+    static final AsyncLogger LOGGER = AsyncLogger.toStdout(AsyncLogger.OverflowPolicy.BLOCK);
+
+    // Die letzten Request-Traces (Span-Bäume) im Speicher
+    static final Tracing.RingBufferSink TRACES = new Tracing.RingBufferSink(1024);
+
     public static void main(String[] args) throws Exception {
 
-        // Simulierter "Request-Entry-Point"
+        Tracing.sink(TRACES);
+
+        // Simulierter "Request-Entry-Point" – jeder Request bekommt einen Root-Span
         ScopedValue
                 .where(REQUEST_ID, "req-123")
                 .where(USERNAME, "alice")
-                .run(() -> handleRequest());
+                .call(() -> Tracing.trace(REQUEST_ID.get(), "handleRequest",
+                        ScopedValueStructuredScopeExample::handleRequest));
+
+        LOGGER.flush();
+
+        // Welcher Subtask hat die Latenz des Requests bestimmt?
+        System.out.println(TRACES.latest(1).get(0).render());
     }
 
-    private static void handleRequest(){
+    // Unter Last (RequestServer) würde die Konsolenausgabe alles andere überdecken
+    static volatile boolean logEnabled = true;
+
+    static String handleRequest(){
 
         // Strukturierte Nebenläufigkeit für diesen Request
-        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+        // (TracingScope = ShutdownOnFailure + ein Kind-Span pro fork)
+        try (var scope = new TracingScope()) {
 
-            var profileTask = scope.fork(() -> loadUserProfile());
-            var ordersTask  = scope.fork(() -> loadOpenOrders());
+            var profileTask = scope.fork("loadUserProfile",
+                    () -> PROFILES.get(USERNAME.get(), user -> loadUserProfile()));
+            var ordersTask  = scope.fork("loadOpenOrders", () -> loadOpenOrders());
 
             // Warten, bis alle Tasks fertig oder abgebrochen sind
             scope.join();
@@ -35,7 +58,9 @@ public class ScopedValueStructuredScopeExample {
             String profile = profileTask.get();
             String orders  = ordersTask.get();
 
-            log("Antwort an Client: " + profile + " | " + orders);
+            String response = profile + " | " + orders;
+            log("Antwort an Client: " + response);
+            return response;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -56,11 +81,12 @@ public class ScopedValueStructuredScopeExample {
     }
 
     private static void log(String message) {
+        if (!logEnabled) {
+            return;
+        }
         // Logging mit Request-Kontext aus Scoped Values
-        System.out.println(
-                "[" + REQUEST_ID.get() + "] " +
-                        "user=" + USERNAME.get() + " | " +
-                        message
-        );
+        // ("[requestId] user=... | " wird erst im Logger-Thread davorgesetzt – log() selbst
+        // baut keinen String; zusammengesetzte Nachrichten entstehen aber beim Aufrufer)
+        LOGGER.log(REQUEST_ID.get(), USERNAME.get(), message);
     }
 }
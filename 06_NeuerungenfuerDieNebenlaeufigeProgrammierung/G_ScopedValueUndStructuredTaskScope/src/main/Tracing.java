@@ -0,0 +1,238 @@
+package main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Minimales Request-Tracing auf Basis von ScopedValue.
+ *
+ * - Der aktuelle Span steckt in einem ScopedValue (CURRENT_SPAN).
+ * - ScopedValues werden in Subtasks von StructuredTaskScope vererbt,
+ *   deshalb kann TracingScope bei jedem fork() automatisch einen Kind-Span öffnen.
+ * - Pro Request entsteht so ein Span-Baum; ist der Root-Span fertig,
+ *   geht der Baum an einen SpanSink (Ring im Speicher oder Datei).
+ *
+ * Bewusst klein gehalten:
+ *  - ein Span = ein Objekt, Kinder als lockfreie verkettete Liste
+ *  - keine Locks, keine Maps, kein Sampling-Framework
+ */
+public final class Tracing {
+
+    public static final ScopedValue<Span> CURRENT_SPAN = ScopedValue.newInstance();
+
+    private static volatile SpanSink sink = new RingBufferSink(1024);
+
+    private Tracing() {}
+
+    public enum Outcome { RUNNING, OK, FAILED }
+
+    public static void sink(SpanSink newSink) {
+        sink = newSink;
+    }
+
+    /*
+     * Startet einen neuen Trace (Root-Span) für einen Request.
+     */
+    public static <T> T trace(String requestId, String name, Callable<T> task) throws Exception {
+        Span root = new Span(requestId, name, null);
+        try {
+            return ScopedValue.where(CURRENT_SPAN, root).call(() -> runIn(root, task));
+        } finally {
+            sink.accept(root);
+        }
+    }
+
+    /*
+     * Kind-Span des aktuellen Spans – ohne aktiven Trace läuft die Aufgabe einfach so.
+     */
+    public static <T> T span(String name, Callable<T> task) throws Exception {
+        if (!CURRENT_SPAN.isBound()) {
+            return task.call();
+        }
+        Span parent = CURRENT_SPAN.get();
+        Span child = new Span(parent.requestId, name, parent);
+        return ScopedValue.where(CURRENT_SPAN, child).call(() -> runIn(child, task));
+    }
+
+    private static <T> T runIn(Span span, Callable<T> task) throws Exception {
+        try {
+            T result = task.call();
+            span.end(Outcome.OK);
+            return result;
+        } catch (Exception | Error e) {
+            span.end(Outcome.FAILED);
+            throw e;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Span
+    // ------------------------------------------------------------
+    public static final class Span {
+        final String requestId;
+        final String name;
+        final Span parent;
+        final long startNanos = System.nanoTime();
+        volatile long endNanos;
+        volatile Outcome outcome = Outcome.RUNNING;
+
+        // Kinder: lockfreie, verkettete Liste (neueste zuerst)
+        private final AtomicReference<Span> firstChild = new AtomicReference<>();
+        private Span nextSibling;
+
+        Span(String requestId, String name, Span parent) {
+            this.requestId = requestId;
+            this.name = name;
+            this.parent = parent;
+            if (parent != null) {
+                parent.addChild(this);
+            }
+        }
+
+        private void addChild(Span child) {
+            Span head;
+            do {
+                head = firstChild.get();
+                child.nextSibling = head;
+            } while (!firstChild.compareAndSet(head, child));
+        }
+
+        void end(Outcome result) {
+            endNanos = System.nanoTime();
+            outcome = result;
+        }
+
+        public String requestId() {
+            return requestId;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+
+        public long durationNanos() {
+            long end = endNanos;
+            return (end == 0 ? System.nanoTime() : end) - startNanos;
+        }
+
+        public List<Span> children() {
+            List<Span> children = new ArrayList<>();
+            for (Span c = firstChild.get(); c != null; c = c.nextSibling) {
+                children.add(0, c); // zurück in Start-Reihenfolge
+            }
+            return children;
+        }
+
+        /*
+         * Baum als Text; das langsamste Kind jeder Ebene ist markiert –
+         * das ist der Subtask, der die Latenz dominiert.
+         */
+        public String render() {
+            StringBuilder sb = new StringBuilder("[" + requestId + "]\n");
+            render(sb, "", false);
+            return sb.toString();
+        }
+
+        private void render(StringBuilder sb, String indent, boolean critical) {
+            sb.append(indent).append(name)
+                    .append(String.format(" %.1f ms", durationNanos() / 1e6))
+                    .append(" ").append(outcome)
+                    .append(critical ? "  <-- dominiert" : "")
+                    .append('\n');
+
+            List<Span> children = children();
+            Span slowest = children.stream()
+                    .max((a, b) -> Long.compare(a.durationNanos(), b.durationNanos()))
+                    .orElse(null);
+            for (Span child : children) {
+                child.render(sb, indent + "  ", children.size() > 1 && child == slowest);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Sinks
+    // ------------------------------------------------------------
+    @FunctionalInterface
+    public interface SpanSink {
+        void accept(Span root);
+    }
+
+    /*
+     * Die letzten N Traces im Speicher. Schreiben ist ein einzelnes
+     * getAndIncrement + set, alte Traces werden einfach überschrieben.
+     */
+    public static final class RingBufferSink implements SpanSink {
+        private final AtomicReferenceArray<Span> ring;
+        private final AtomicLong written = new AtomicLong();
+
+        public RingBufferSink(int capacity) {
+            this.ring = new AtomicReferenceArray<>(capacity);
+        }
+
+        @Override
+        public void accept(Span root) {
+            ring.set((int) (written.getAndIncrement() % ring.length()), root);
+        }
+
+        public List<Span> latest(int n) {
+            List<Span> result = new ArrayList<>();
+            long end = written.get();
+            for (long i = end - 1; i >= Math.max(0, end - Math.min(n, ring.length())); i--) {
+                Span s = ring.get((int) (i % ring.length()));
+                if (s != null) {
+                    result.add(s);
+                }
+            }
+            return result;
+        }
+    }
+
+    /*
+     * Hängt jeden fertigen Trace an eine Datei an.
+     * ReentrantLock statt synchronized: blockierendes Schreiben pinnt keinen virtuellen Thread.
+     */
+    public static final class FileSink implements SpanSink, AutoCloseable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BufferedWriter writer;
+
+        public FileSink(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        @Override
+        public void accept(Span root) {
+            String text = root.render();
+            lock.lock();
+            try {
+                writer.write(text);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package main;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * StructuredTaskScope mit "ShutdownOnFailure"-Verhalten, der jeden fork()
+ * automatisch in einen Kind-Span des aktuellen Spans verpackt.
+ *
+ * StructuredTaskScope.ShutdownOnFailure ist final, deshalb wird das
+ * Verhalten hier nachgebaut:
+ *  - erster Fehler -> shutdown() bricht die übrigen Subtasks ab
+ *  - throwIfFailed() wirft diesen ersten Fehler
+ */
+public class TracingScope extends StructuredTaskScope<Object> {
+
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    public TracingScope() {
+        super("tracing-scope", Thread.ofVirtual().factory());
+    }
+
+    @Override
+    public <U> Subtask<U> fork(Callable<? extends U> task) {
+        return fork("fork", task);
+    }
+
+    public <U> Subtask<U> fork(String spanName, Callable<? extends U> task) {
+        // Der Callable läuft im Subtask-Thread und erbt dort CURRENT_SPAN vom Owner
+        return super.fork(() -> Tracing.span(spanName, task));
+    }
+
+    @Override
+    protected void handleComplete(Subtask<?> subtask) {
+        if (subtask.state() == Subtask.State.FAILED
+                && firstFailure.compareAndSet(null, subtask.exception())) {
+            shutdown();
+        }
+    }
+
+    public void throwIfFailed() throws ExecutionException {
+        ensureOwnerAndJoined();
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+    }
+}
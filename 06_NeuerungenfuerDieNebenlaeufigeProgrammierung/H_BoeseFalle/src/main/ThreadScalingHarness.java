@@ -0,0 +1,373 @@
+package main;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Messbare Variante von DontDoIt.
+ *
+ * Statt "50.000 Threads starten und 15 Sekunden warten" misst dieser Harness
+ * pro Kombination aus
+ *  - Anzahl Tasks:  10.000, 100.000, 1.000.000
+ *  - Träger:        PLATFORM oder VIRTUAL
+ *  - Workload:      SLEEP (Thread.sleep) oder IO (blockierendes Lesen von einem lokalen Socket)
+ *
+ * folgende Werte:
+ *  - Startkosten pro Thread (µs)
+ *  - Resident Memory (RSS) und Heap pro Thread, gemessen wenn alle Threads laufen
+ *  - Zeit, bis alle Threads gestartet sind / bis alle fertig sind
+ *  - GC-Aktivität (Anzahl Collections, GC-Zeit)
+ *
+ * Ausgabe:
+ *  - results.csv mit einer Zeile pro Kombination
+ *  - pro Kombination zwei Histogramm-Dateien (*.hgrm, HDR-Format) für
+ *    Start-Latenz (start() bis run()) und Task-Dauer
+ *
+ * Jede Kombination läuft in einer EIGENEN JVM, damit Speicherwerte sauber sind
+ * und ein OutOfMemoryError (z.B. 1 Mio. Plattform-Threads) nur diesen Lauf beendet.
+ *
+ * Start:
+ *   java main.ThreadScalingHarness [tasks] [carriers] [workloads] [sleepMs] [outDir]
+ *   java main.ThreadScalingHarness 10000,100000 VIRTUAL,PLATFORM SLEEP,IO 1000 scaling-results
+ *
+ * Hinweis: IO mit vielen Tasks braucht genügend File-Deskriptoren (ulimit -n).
+ */
+public class ThreadScalingHarness {
+
+    enum Carrier { PLATFORM, VIRTUAL }
+
+    enum Workload { SLEEP, IO }
+
+    static final String CSV_HEADER = "tasks,carrier,workload,sleepMs,startMicrosPerThread,"
+            + "timeToAllStartedMs,timeToAllFinishedMs,rssBytesPerThread,heapBytesPerThread,"
+            + "gcCount,gcTimeMs,startLatencyP99Micros,taskDurationP99Micros,error";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--single")) {
+            runSingle(args);
+            return;
+        }
+
+        String tasks = args.length > 0 ? args[0] : "10000,100000,1000000";
+        String carriers = args.length > 1 ? args[1] : "VIRTUAL,PLATFORM";
+        String workloads = args.length > 2 ? args[2] : "SLEEP,IO";
+        String sleepMs = args.length > 3 ? args[3] : "1000";
+        Path outDir = Path.of(args.length > 4 ? args[4] : "scaling-results");
+        Files.createDirectories(outDir);
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        System.out.println(CSV_HEADER);
+
+        for (String n : tasks.split(",")) {
+            for (String carrier : carriers.split(",")) {
+                for (String workload : workloads.split(",")) {
+                    Process p = new ProcessBuilder(java, "-cp", classpath,
+                            ThreadScalingHarness.class.getName(), "--single",
+                            n, carrier, workload, sleepMs, outDir.toString())
+                            .redirectError(ProcessBuilder.Redirect.INHERIT)
+                            .start();
+                    String output = new String(p.getInputStream().readAllBytes()).strip();
+                    int exit = p.waitFor();
+
+                    String line = exit == 0 && !output.isEmpty()
+                            ? output.lines().reduce((a, b) -> b).orElseThrow()
+                            : String.join(",", n, carrier, workload, sleepMs,
+                                    ",,,,,,,,", "JVM exit " + exit);
+                    lines.add(line);
+                    System.out.println(line);
+                }
+            }
+        }
+
+        Files.write(outDir.resolve("results.csv"), lines);
+        System.out.println("Ergebnisse in " + outDir.toAbsolutePath());
+    }
+
+    // ------------------------------------------------------------
+    // Ein einzelner Lauf (in eigener JVM)
+    // ------------------------------------------------------------
+    static void runSingle(String[] args) throws Exception {
+        int tasks = Integer.parseInt(args[1]);
+        Carrier carrier = Carrier.valueOf(args[2]);
+        Workload workload = Workload.valueOf(args[3]);
+        long sleepMs = Long.parseLong(args[4]);
+        Path outDir = Path.of(args[5]);
+
+        SlowServer server = workload == Workload.IO ? SlowServer.start(sleepMs) : null;
+
+        LatencyHistogram startLatency = new LatencyHistogram();
+        LatencyHistogram taskDuration = new LatencyHistogram();
+        CountDownLatch allStarted = new CountDownLatch(tasks);
+        CountDownLatch allFinished = new CountDownLatch(tasks);
+        LongAdder failures = new LongAdder();
+
+        System.gc();
+        long rssBefore = residentBytes();
+        long heapBefore = usedHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMs();
+
+        String error = "";
+        int started = 0;
+        long begin = System.nanoTime();
+        try {
+            for (; started < tasks; started++) {
+                long created = System.nanoTime();
+                Runnable task = () -> {
+                    long running = System.nanoTime();
+                    startLatency.record((running - created) / 1_000);
+                    allStarted.countDown();
+                    try {
+                        switch (workload) {
+                            case SLEEP -> Thread.sleep(sleepMs);
+                            case IO -> server.call();
+                        }
+                    } catch (Exception e) {
+                        failures.increment();
+                    } finally {
+                        taskDuration.record((System.nanoTime() - running) / 1_000);
+                        allFinished.countDown();
+                    }
+                };
+                switch (carrier) {
+                    case PLATFORM -> Thread.ofPlatform().start(task);
+                    case VIRTUAL -> Thread.ofVirtual().start(task);
+                }
+            }
+        } catch (Throwable t) {
+            // typischerweise OutOfMemoryError: unable to create native thread
+            error = t.getClass().getSimpleName() + " nach " + started + " Threads";
+        }
+        long startLoopNanos = System.nanoTime() - begin;
+
+        // Threads, die nie gestartet wurden, zählen als "fertig"
+        for (int i = started; i < tasks; i++) {
+            allStarted.countDown();
+            allFinished.countDown();
+        }
+
+        allStarted.await();
+        long allStartedNanos = System.nanoTime() - begin;
+
+        // Speicher messen, während alle Threads noch schlafen/blockieren
+        long rssPeak = residentBytes();
+        long heapPeak = usedHeap();
+
+        allFinished.await();
+        long allFinishedNanos = System.nanoTime() - begin;
+
+        if (server != null) {
+            server.close();
+        }
+        if (error.isEmpty() && failures.sum() > 0) {
+            error = failures.sum() + " Tasks fehlgeschlagen";
+        }
+
+        int perThread = Math.max(1, started);
+        String name = tasks + "-" + carrier + "-" + workload;
+        startLatency.writeDistribution(outDir.resolve(name + "-start-latency.hgrm"));
+        taskDuration.writeDistribution(outDir.resolve(name + "-task-duration.hgrm"));
+
+        System.out.println(String.join(",",
+                String.valueOf(tasks), carrier.name(), workload.name(), String.valueOf(sleepMs),
+                String.format("%.2f", startLoopNanos / 1_000.0 / perThread),
+                String.valueOf(allStartedNanos / 1_000_000),
+                String.valueOf(allFinishedNanos / 1_000_000),
+                String.valueOf(rssBefore < 0 ? -1 : (rssPeak - rssBefore) / perThread),
+                String.valueOf((heapPeak - heapBefore) / perThread),
+                String.valueOf(gcCount() - gcCountBefore),
+                String.valueOf(gcTimeMs() - gcTimeBefore),
+                String.valueOf(startLatency.valueAtPercentile(99)),
+                String.valueOf(taskDuration.valueAtPercentile(99)),
+                error));
+
+        System.exit(0); // evtl. hängende Plattform-Threads nicht abwarten
+    }
+
+    // ------------------------------------------------------------
+    // Speicher & GC
+    // ------------------------------------------------------------
+
+    // RSS aus /proc/self/status (nur Linux), sonst -1
+    static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring(6).replace("kB", "").strip();
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+
+    static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    static long gcTimeMs() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    // ------------------------------------------------------------
+    // Lokaler "langsamer" Server für den IO-Workload:
+    // liest 1 Byte, wartet sleepMs, antwortet mit 1 Byte.
+    // ------------------------------------------------------------
+    static final class SlowServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final long delayMs;
+
+        private SlowServer(ServerSocket serverSocket, long delayMs) {
+            this.serverSocket = serverSocket;
+            this.delayMs = delayMs;
+        }
+
+        static SlowServer start(long delayMs) throws IOException {
+            SlowServer server = new SlowServer(
+                    new ServerSocket(0, 50_000, InetAddress.getLoopbackAddress()), delayMs);
+            Thread.ofVirtual().start(server::acceptLoop);
+            return server;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> answer(socket));
+                } catch (IOException e) {
+                    return; // Server geschlossen
+                }
+            }
+        }
+
+        private void answer(Socket socket) {
+            try (socket) {
+                if (socket.getInputStream().read() >= 0) {
+                    Thread.sleep(delayMs);
+                    socket.getOutputStream().write(1);
+                }
+            } catch (IOException | InterruptedException ignored) {
+            }
+        }
+
+        // Der eigentliche blockierende Aufruf des Tasks
+        void call() throws IOException {
+            try (Socket socket = new Socket(serverSocket.getInetAddress(), serverSocket.getLocalPort())) {
+                OutputStream out = socket.getOutputStream();
+                InputStream in = socket.getInputStream();
+                out.write(1);
+                out.flush();
+                if (in.read() < 0) {
+                    throw new IOException("Verbindung vorzeitig geschlossen");
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Histogramm mit ~1,5 % Auflösung (log-linear, wie HdrHistogram),
+    // thread-sicher und ohne externe Bibliothek. Werte in µs.
+    // ------------------------------------------------------------
+    static final class LatencyHistogram {
+
+        private static final int SUB_BITS = 6;                  // 64 Stufen pro Zweierpotenz
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int LINEAR = 2 * SUB_COUNT;        // Werte < 128 exakt
+
+        private final AtomicLongArray counts = new AtomicLongArray(LINEAR + 58 * SUB_COUNT);
+
+        void record(long value) {
+            counts.getAndIncrement(indexOf(Math.max(0, value)));
+        }
+
+        static int indexOf(long v) {
+            if (v < LINEAR) {
+                return (int) v;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;   // v >> shift liegt in [64, 128)
+            return LINEAR + (shift - 1) * SUB_COUNT + (int) ((v >> shift) - SUB_COUNT);
+        }
+
+        static long valueOf(int index) {
+            if (index < LINEAR) {
+                return index;
+            }
+            int shift = (index - LINEAR) / SUB_COUNT + 1;
+            long mantissa = (index - LINEAR) % SUB_COUNT + SUB_COUNT;
+            return mantissa << shift;
+        }
+
+        long totalCount() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        long valueAtPercentile(double percentile) {
+            long total = totalCount();
+            long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return valueOf(i);
+                }
+            }
+            return 0;
+        }
+
+        // Format wie HdrHistogram.outputPercentileDistribution() -> mit HdrHistogram-Plottern lesbar
+        void writeDistribution(Path file) throws IOException {
+            long total = totalCount();
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+                out.printf("%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)");
+                long seen = 0;
+                long max = 0;
+                for (int i = 0; i < counts.length(); i++) {
+                    long c = counts.get(i);
+                    if (c == 0) {
+                        continue;
+                    }
+                    seen += c;
+                    max = valueOf(i);
+                    double fraction = (double) seen / total;
+                    out.printf("%12.3f %2.12f %10d %14s%n", (double) max, fraction, seen,
+                            fraction < 1 ? String.format("%.2f", 1 / (1 - fraction)) : "");
+                }
+                out.printf("#[Max     = %12.3f, Total count    = %12d]%n", (double) max, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package main;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+ * Live-Überwachung von Pinning – im eigenen Prozess, ohne Log-Grepping.
+ *
+ * -Djdk.tracePinnedThreads schreibt nur Text nach stdout.
+ * Dieser Monitor abonniert stattdessen das JFR-Event "jdk.VirtualThreadPinned"
+ * über einen RecordingStream und sammelt pro Stacktrace ("Pinning-Stelle"):
+ *  - Anzahl Events
+ *  - gesamte gepinnte Zeit
+ *  - maximale Dauer
+ *
+ * Die schlimmsten Stellen gibt es auf Abruf (topOffenders) oder automatisch,
+ * sobald eine Stelle eine Schwelle für die gesamte gepinnte Zeit überschreitet.
+ *
+ * Hinweis:
+ *  - JFR meldet ein Pinning erst, wenn es länger als "eventThreshold" dauert
+ *    (JDK-Default: 20 ms). Kürzeres Pinning ist meist unkritisch.
+ *  - Die Events kommen gebündelt (ca. jede Sekunde), nicht in Echtzeit.
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Wie viele Frames eine Pinning-Stelle identifizieren
+    private static final int KEY_FRAMES = 8;
+
+    private final RecordingStream stream;
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final Duration alertThreshold;
+    private final Consumer<PinningSite> alertListener;
+
+    public PinningMonitor(Duration eventThreshold, Duration alertThreshold,
+                          Consumer<PinningSite> alertListener) {
+        this.alertThreshold = alertThreshold;
+        this.alertListener = alertListener;
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(eventThreshold)
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    public PinningMonitor start() {
+        // startAsync: Events werden in einem eigenen Thread verarbeitet
+        stream.startAsync();
+        return this;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String key = siteKey(event.getStackTrace());
+        SiteStats stats = sites.computeIfAbsent(key, SiteStats::new);
+        long nanos = event.getDuration().toNanos();
+
+        stats.count.increment();
+        long total = stats.totalNanos.addAndGet(nanos);
+        stats.maxNanos.accumulate(nanos);
+
+        // Schwelle überschritten -> genau einmal pro Stelle melden
+        if (total >= alertThreshold.toNanos()
+                && stats.alerted.compareAndSet(false, true)) {
+            alertListener.accept(stats.toSite());
+        }
+    }
+
+    private static String siteKey(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<kein Stacktrace>";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        int used = 0;
+        for (RecordedFrame f : frames) {
+            // Park-Mechanik des VirtualThread ist bei jedem Pinning gleich -> überspringen
+            if (used == 0 && f.getMethod().getType().getName().equals("java.lang.VirtualThread")) {
+                continue;
+            }
+            if (used++ == KEY_FRAMES) {
+                break;
+            }
+            sb.append("    at ")
+                    .append(f.getMethod().getType().getName()).append('.')
+                    .append(f.getMethod().getName())
+                    .append(" (Zeile ").append(f.getLineNumber()).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Die n Stellen mit der meisten gepinnten Gesamtzeit.
+     */
+    public List<PinningSite> topOffenders(int n) {
+        return sites.values().stream()
+                .map(SiteStats::toSite)
+                .sorted(Comparator.comparing(PinningSite::totalPinned).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    public String report(int n) {
+        StringBuilder sb = new StringBuilder("=== Pinning Top " + n + " ===\n");
+        for (PinningSite site : topOffenders(n)) {
+            sb.append(site).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    public record PinningSite(String stackTrace, long count, Duration totalPinned, Duration maxPinned) {
+        @Override
+        public String toString() {
+            return "count=" + count
+                    + ", total=" + totalPinned.toMillis() + " ms"
+                    + ", max=" + maxPinned.toMillis() + " ms\n"
+                    + stackTrace;
+        }
+    }
+
+    private static final class SiteStats {
+        final String key;
+        final LongAdder count = new LongAdder();
+        final AtomicLong totalNanos = new AtomicLong();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final AtomicBoolean alerted = new AtomicBoolean();
+
+        SiteStats(String key) {
+            this.key = key;
+        }
+
+        PinningSite toSite() {
+            return new PinningSite(key, count.sum(),
+                    Duration.ofNanos(totalNanos.get()), Duration.ofNanos(maxNanos.get()));
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Demo: dieselbe Falle wie im auskommentierten Teil von PinningExample
+    // ------------------------------------------------------------
+    public static void main(String[] args) throws Exception {
+
+        try (PinningMonitor monitor = new PinningMonitor(
+                Duration.ofMillis(20),
+                Duration.ofSeconds(1),
+                site -> System.out.println("⚠️ Pinning-Schwelle überschritten:\n" + site))
+                .start()) {
+
+            Thread[] threads = new Thread[5];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = Thread.startVirtualThread(() -> {
+                    synchronized (PinningExample.LOCK_OBJECT) {
+                        try {
+                            Thread.sleep(300); // ❌ blockiert + synchronized = PINNING
+                        } catch (InterruptedException ignored) {}
+                    }
+                });
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+
+            // JFR liefert Events gebündelt aus -> kurz warten
+            Thread.sleep(2000);
+            System.out.println(monitor.report(3));
+        }
+    }
+}
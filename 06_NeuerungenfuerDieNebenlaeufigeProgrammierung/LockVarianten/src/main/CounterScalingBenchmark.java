@@ -0,0 +1,171 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ * Wie skaliert ein reines Inkrement mit der Anzahl Threads?
+ *
+ * Vergleich:
+ *  - synchronized-Counter   (wie synchronizedCounter in LockOverviewExample)
+ *  - ReentrantLock-Counter  (wie reentrantCounter)
+ *  - AtomicInteger          (wie atomicCounter)
+ *  - LongAdder              (JDK-Referenz für Striping)
+ *  - StripedCounter         (aus StatisticsRegistry)
+ *
+ * Erwartung: Die ersten drei teilen sich eine Cache-Line und werden mit
+ * mehr Kernen eher langsamer, die gestripten Varianten skalieren mit.
+ *
+ * Start:  java main.CounterScalingBenchmark [messdauerMs]
+ */
+public class CounterScalingBenchmark {
+
+    interface Counter {
+        void increment();
+        long get();
+    }
+
+    static final class SynchronizedCounter implements Counter {
+        private final Object lock = new Object();
+        private long value;
+
+        public void increment() {
+            synchronized (lock) {
+                value++;
+            }
+        }
+
+        public long get() {
+            synchronized (lock) {
+                return value;
+            }
+        }
+    }
+
+    static final class LockCounter implements Counter {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long value;
+
+        public void increment() {
+            lock.lock();
+            try {
+                value++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long get() {
+            lock.lock();
+            try {
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static final class AtomicCounter implements Counter {
+        private final AtomicInteger value = new AtomicInteger();
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    static final class AdderCounter implements Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    static final class RegistryCounter implements Counter {
+        private final StatisticsRegistry.StripedCounter value =
+                new StatisticsRegistry().counter("increments");
+
+        public void increment() {
+            value.increment();
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    record Candidate(String name, Supplier<Counter> factory) {}
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+
+        List<Candidate> candidates = List.of(
+                new Candidate("synchronized", SynchronizedCounter::new),
+                new Candidate("ReentrantLock", LockCounter::new),
+                new Candidate("AtomicInteger", AtomicCounter::new),
+                new Candidate("LongAdder", AdderCounter::new),
+                new Candidate("StripedCounter", RegistryCounter::new));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < 2 * cores; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(2 * cores);
+
+        System.out.println("counter,threads,incrementsPerSecond");
+        for (Candidate candidate : candidates) {
+            for (int threads : threadCounts) {
+                run(candidate.factory().get(), threads, millis / 2); // Warmup
+                double opsPerSecond = run(candidate.factory().get(), threads, millis);
+                System.out.printf("%s,%d,%.0f%n", candidate.name(), threads, opsPerSecond);
+            }
+        }
+    }
+
+    static double run(Counter counter, int threads, long millis) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Thread[] workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            workers[i] = Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long end = deadline[0];
+                do {
+                    // 1024 Inkremente pro Zeitabfrage
+                    for (int j = 0; j < 1024; j++) {
+                        counter.increment();
+                    }
+                } while (System.nanoTime() < end);
+            });
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000L;
+        start.countDown();
+        for (Thread t : workers) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return counter.get() * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,387 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+ * Contention-Benchmark für alle Varianten aus LockOverviewExample.
+ *
+ * Jede Variante läuft über:
+ *  - Thread-Anzahl:  1, 2, 4, ... bis 2x Anzahl Kerne
+ *  - Lese/Schreib-Mix: 100/0, 95/5, 50/50
+ *  - Träger:         Plattform-Threads vs. virtuelle Threads
+ *
+ * Ausgabe pro Kombination: Durchsatz (ops/s) und p99-Latenz (ns) als CSV.
+ *
+ * Hinweis:
+ *  - Hier ist bewusst kein JMH im Spiel (die Beispiel-Projekte haben keinen
+ *    Build mit Abhängigkeiten). Warmup-Phase, Messphase und Blackhole
+ *    ("sink") sind deshalb von Hand nachgebaut.
+ *  - Die Latenz wird nur für jede 16. Operation gemessen, damit
+ *    System.nanoTime() den Durchsatz nicht verfälscht.
+ *  - CountDownLatch und CyclicBarrier sind keine Locks: dort wird eine
+ *    "Runde" (alle Threads treffen sich einmal) gemessen, der Mix spielt
+ *    keine Rolle.
+ *
+ * Start:  java main.LockContentionBenchmark [messdauerMs] [variante,...]
+ *   z.B.  java main.LockContentionBenchmark 1000 SYNCHRONIZED,REENTRANT_LOCK
+ */
+public class LockContentionBenchmark {
+
+    enum Variant {
+        SYNCHRONIZED,
+        REENTRANT_LOCK,
+        READ_WRITE_LOCK,
+        STAMPED_LOCK,
+        STAMPED_OPTIMISTIC,
+        ATOMIC_INTEGER,
+        SEMAPHORE_UNFAIR,
+        SEMAPHORE_FAIR,
+        COUNT_DOWN_LATCH,
+        CYCLIC_BARRIER;
+
+        boolean isCoordination() {
+            return this == COUNT_DOWN_LATCH || this == CYCLIC_BARRIER;
+        }
+    }
+
+    enum Carrier { PLATFORM, VIRTUAL }
+
+    // Anteil Schreibzugriffe in Prozent: 100/0, 95/5, 50/50
+    static final int[] WRITE_PERCENTS = {0, 5, 50};
+
+    static final int SAMPLE_MASK = 15;              // jede 16. Operation messen
+    static final int MAX_SAMPLES_PER_THREAD = 1 << 16;
+    static final int ROUNDS_PER_COORDINATION_RUN = 20_000;
+
+    // Verhindert, dass der JIT gelesene Werte wegoptimiert
+    static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        long measureMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        List<Variant> variants = args.length > 1
+                ? Arrays.stream(args[1].split(",")).map(Variant::valueOf).toList()
+                : List.of(Variant.values());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < 2 * cores; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(2 * cores);
+
+        System.out.println("variant,carrier,threads,readPercent,writePercent,opsPerSecond,p99Nanos");
+
+        for (Variant variant : variants) {
+            for (Carrier carrier : Carrier.values()) {
+                for (int threads : threadCounts) {
+                    // Für Latch/Barrier gibt es keinen Lese/Schreib-Mix
+                    int[] mixes = variant.isCoordination() ? new int[]{0} : WRITE_PERCENTS;
+                    for (int writePercent : mixes) {
+                        // Warmup (Ergebnis verwerfen), danach Messung
+                        run(variant, carrier, threads, writePercent, measureMillis / 2);
+                        Result r = run(variant, carrier, threads, writePercent, measureMillis);
+                        System.out.printf("%s,%s,%d,%d,%d,%.0f,%d%n",
+                                variant, carrier, threads, 100 - writePercent, writePercent,
+                                r.opsPerSecond(), r.p99Nanos());
+                    }
+                }
+            }
+        }
+    }
+
+    record Result(double opsPerSecond, long p99Nanos) {}
+
+    // ------------------------------------------------------------
+    // Ein Lauf: N Threads hämmern für "millis" auf dieselbe Variante
+    // ------------------------------------------------------------
+    static Result run(Variant variant, Carrier carrier, int threads,
+                      int writePercent, long millis) throws InterruptedException {
+
+        SharedState state = new SharedState(threads);
+        long[][] samples = new long[threads][MAX_SAMPLES_PER_THREAD];
+        int[] sampleCounts = new int[threads];
+        long[] ops = new long[threads];
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int id = i;
+            Runnable worker = () -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (variant.isCoordination()) {
+                    ops[id] = runRounds(variant, state, samples[id], sampleCounts, id);
+                } else {
+                    ops[id] = runOps(variant, state, writePercent, deadline[0],
+                            samples[id], sampleCounts, id);
+                }
+            };
+            workers[i] = switch (carrier) {
+                case PLATFORM -> Thread.ofPlatform().unstarted(worker);
+                case VIRTUAL -> Thread.ofVirtual().unstarted(worker);
+            };
+            workers[i].start();
+        }
+
+        ready.await();
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000L;
+        start.countDown(); // happens-before: deadline ist für alle Worker sichtbar
+
+        for (Thread t : workers) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long totalOps = Arrays.stream(ops).sum();
+        return new Result(totalOps * 1e9 / elapsed, p99(samples, sampleCounts));
+    }
+
+    // Lock-Varianten: zufälliger Mix aus Lesen und Schreiben bis zur Deadline
+    static long runOps(Variant variant, SharedState s, int writePercent, long deadline,
+                       long[] samples, int[] sampleCounts, int id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0;
+        int n = 0;
+
+        while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+            boolean write = random.nextInt(100) < writePercent;
+            boolean sample = (count & SAMPLE_MASK) == 0 && n < samples.length;
+
+            long t0 = sample ? System.nanoTime() : 0;
+            if (write) {
+                s.write(variant);
+            } else {
+                sink = s.read(variant);
+            }
+            if (sample) {
+                samples[n++] = System.nanoTime() - t0;
+            }
+            count++;
+        }
+        sampleCounts[id] = n;
+        return count;
+    }
+
+    // Latch/Barrier: feste Anzahl Runden, sonst bleiben Threads an der Barriere hängen
+    static long runRounds(Variant variant, SharedState s, long[] samples, int[] sampleCounts, int id) {
+        int n = 0;
+        for (int round = 0; round < ROUNDS_PER_COORDINATION_RUN; round++) {
+            boolean sample = (round & SAMPLE_MASK) == 0 && n < samples.length;
+            long t0 = sample ? System.nanoTime() : 0;
+            s.rendezvous(variant, round);
+            if (sample) {
+                samples[n++] = System.nanoTime() - t0;
+            }
+        }
+        sampleCounts[id] = n;
+        return ROUNDS_PER_COORDINATION_RUN;
+    }
+
+    static long p99(long[][] samples, int[] sampleCounts) {
+        int total = Arrays.stream(sampleCounts).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long[] all = new long[total];
+        int pos = 0;
+        for (int i = 0; i < samples.length; i++) {
+            System.arraycopy(samples[i], 0, all, pos, sampleCounts[i]);
+            pos += sampleCounts[i];
+        }
+        Arrays.sort(all);
+        return all[(int) Math.min(total - 1, Math.ceil(total * 0.99) - 1)];
+    }
+
+    // ------------------------------------------------------------
+    // Gemeinsamer Zustand – entspricht den static-Feldern in LockOverviewExample,
+    // aber pro Lauf neu, damit sich die Läufe nicht beeinflussen.
+    // ------------------------------------------------------------
+    static final class SharedState {
+        final Object syncLock = new Object();
+        int synchronizedCounter;
+
+        final ReentrantLock reentrantLock = new ReentrantLock();
+        int reentrantCounter;
+
+        final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+        int rwSharedValue;
+
+        final StampedLock stampedLock = new StampedLock();
+        int stampedValue;
+
+        final AtomicInteger atomicCounter = new AtomicInteger();
+
+        final Semaphore unfairSemaphore = new Semaphore(1, false);
+        final Semaphore fairSemaphore = new Semaphore(1, true);
+        int semaphoreCounter;
+
+        final int parties;
+        final CyclicBarrier barrier;
+
+        // Zwei Latch-Slots reichen: wer Runde r+2 betritt, weiß, dass alle Runde r verlassen haben
+        final AtomicReferenceArray<LatchRound> latches = new AtomicReferenceArray<>(2);
+
+        record LatchRound(int round, CountDownLatch latch) {}
+
+        SharedState(int parties) {
+            this.parties = parties;
+            this.barrier = new CyclicBarrier(parties);
+        }
+
+        int read(Variant variant) {
+            switch (variant) {
+                case SYNCHRONIZED -> {
+                    synchronized (syncLock) {
+                        return synchronizedCounter;
+                    }
+                }
+                case REENTRANT_LOCK -> {
+                    reentrantLock.lock();
+                    try {
+                        return reentrantCounter;
+                    } finally {
+                        reentrantLock.unlock();
+                    }
+                }
+                case READ_WRITE_LOCK -> {
+                    rwLock.readLock().lock();
+                    try {
+                        return rwSharedValue;
+                    } finally {
+                        rwLock.readLock().unlock();
+                    }
+                }
+                case STAMPED_LOCK -> {
+                    long stamp = stampedLock.readLock();
+                    try {
+                        return stampedValue;
+                    } finally {
+                        stampedLock.unlockRead(stamp);
+                    }
+                }
+                case STAMPED_OPTIMISTIC -> {
+                    long stamp = stampedLock.tryOptimisticRead();
+                    int v = stampedValue;
+                    if (!stampedLock.validate(stamp)) {
+                        stamp = stampedLock.readLock();
+                        try {
+                            v = stampedValue;
+                        } finally {
+                            stampedLock.unlockRead(stamp);
+                        }
+                    }
+                    return v;
+                }
+                case ATOMIC_INTEGER -> {
+                    return atomicCounter.get();
+                }
+                case SEMAPHORE_UNFAIR -> {
+                    return guarded(unfairSemaphore, false);
+                }
+                case SEMAPHORE_FAIR -> {
+                    return guarded(fairSemaphore, false);
+                }
+                default -> throw new IllegalStateException("Keine Lese-Operation für " + variant);
+            }
+        }
+
+        void write(Variant variant) {
+            switch (variant) {
+                case SYNCHRONIZED -> {
+                    synchronized (syncLock) {
+                        synchronizedCounter++;
+                    }
+                }
+                case REENTRANT_LOCK -> {
+                    reentrantLock.lock();
+                    try {
+                        reentrantCounter++;
+                    } finally {
+                        reentrantLock.unlock();
+                    }
+                }
+                case READ_WRITE_LOCK -> {
+                    rwLock.writeLock().lock();
+                    try {
+                        rwSharedValue++;
+                    } finally {
+                        rwLock.writeLock().unlock();
+                    }
+                }
+                case STAMPED_LOCK, STAMPED_OPTIMISTIC -> {
+                    long stamp = stampedLock.writeLock();
+                    try {
+                        stampedValue++;
+                    } finally {
+                        stampedLock.unlockWrite(stamp);
+                    }
+                }
+                case ATOMIC_INTEGER -> atomicCounter.incrementAndGet();
+                case SEMAPHORE_UNFAIR -> guarded(unfairSemaphore, true);
+                case SEMAPHORE_FAIR -> guarded(fairSemaphore, true);
+                default -> throw new IllegalStateException("Keine Schreib-Operation für " + variant);
+            }
+        }
+
+        // Semaphore mit 1 Permit als Mutex – so wird "unfair (schneller)" direkt vergleichbar
+        private int guarded(Semaphore semaphore, boolean write) {
+            semaphore.acquireUninterruptibly();
+            try {
+                return write ? ++semaphoreCounter : semaphoreCounter;
+            } finally {
+                semaphore.release();
+            }
+        }
+
+        void rendezvous(Variant variant, int round) {
+            try {
+                switch (variant) {
+                    case CYCLIC_BARRIER -> barrier.await();
+                    case COUNT_DOWN_LATCH -> {
+                        CountDownLatch latch = latchFor(round);
+                        latch.countDown();
+                        latch.await();
+                    }
+                    default -> throw new IllegalStateException("Keine Koordinations-Variante: " + variant);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // CountDownLatch ist nicht zurücksetzbar -> pro Runde ein neuer Latch
+        private CountDownLatch latchFor(int round) {
+            int slot = round & 1;
+            while (true) {
+                LatchRound current = latches.get(slot);
+                if (current != null && current.round() == round) {
+                    return current.latch();
+                }
+                latches.compareAndSet(slot, current, new LatchRound(round, new CountDownLatch(parties)));
+            }
+        }
+    }
+}
@@ -169,6 +169,20 @@ public class LockOverviewExample {
         atomicCounter.incrementAndGet();
         int current = atomicCounter.get();
 
+        // ------------------------------------------------------------
+        // 7b) Gestripte Counter (LongAdder-Prinzip, siehe StatisticsRegistry)
+        // ------------------------------------------------------------
+        // Vorteile:
+        //  - jeder Kern schreibt in eine eigene, gepolsterte Zelle
+        //  - skaliert bei vielen schreibenden Threads deutlich besser
+        // Nachteile:
+        //  - Lesen summiert alle Zellen (kein atomarer Gesamtwert)
+        //  - mehr Speicher pro Counter
+        // Vergleich mit den Varianten oben: CounterScalingBenchmark
+        StatisticsRegistry statistics = new StatisticsRegistry();
+        statistics.counter("increments").increment();
+        System.out.println("Gestripter Counter: " + statistics.snapshot().counters().get("increments"));
+
         // ------------------------------------------------------------
         // 8) Semaphore
         // ------------------------------------------------------------
@@ -241,6 +255,9 @@ public class LockOverviewExample {
 
         pool2.shutdown();
 
+        // Mehrstufige Batch-Pipeline mit begrenzten Queues, Backpressure
+        // und Epochen-Grenzen über einen Phaser: siehe PipelineEngine.
+
         // ------------------------------------------------------------
         // Hinweis zu virtuellen Threads:
         // ------------------------------------------------------------
@@ -258,6 +275,9 @@ public class LockOverviewExample {
         //  - bei IO: nicht innerhalb von Locks blockieren
         //  - StructuredTaskScope und ScopedValue als moderne Mittel
         //    für Zusammenspiel von Concurrency und Kontext verwenden.
+        //
+        // Messwerte zu den Vor-/Nachteilen oben (Durchsatz, p99-Latenz,
+        // Plattform- vs. virtuelle Threads): siehe LockContentionBenchmark.
 
         System.out.println("Beispielprogramm beendet.");
     }
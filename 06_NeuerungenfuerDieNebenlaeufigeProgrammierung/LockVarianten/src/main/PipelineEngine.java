@@ -0,0 +1,408 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/*
+ * Mehrstufige Pipeline für Batch-Jobs – die Weiterführung von
+ * CountDownLatch / CyclicBarrier aus LockOverviewExample.
+ *
+ * Aufbau:
+ *  - Stufen sind über BEGRENZTE Queues (ArrayBlockingQueue) verbunden
+ *  - jede Stufe hat eigene Parallelität und eigenen Thread-Typ (Plattform / virtuell)
+ *  - Backpressure: ist die Queue einer langsamen Stufe voll, blockiert put()
+ *    der vorherigen Stufe – bis zurück zur Quelle
+ *  - Epochen (optional): alle Stufen laufen im Gleichschritt über einen Phaser.
+ *    Epoche n+1 beginnt erst, wenn ALLE Stufen Epoche n vollständig verarbeitet haben
+ *    (z.B. "Tag abschließen, dann Checkpoint schreiben").
+ *
+ * Ende einer Epoche / des Streams: Marker-Objekte laufen hinter den Daten durch die Queues.
+ * Erst wenn alle Worker einer Stufe den Marker gesehen haben, geht er an die nächste Stufe.
+ *
+ * Messwerte pro Stufe (über StatisticsRegistry, auch während des Laufs lesbar):
+ *  - verarbeitete Elemente, Bearbeitungszeit
+ *  - "blockiert": Wartezeit in put() -> die NÄCHSTE Stufe ist zu langsam
+ *  - "hungrig":   Wartezeit in take() -> die VORHERIGE Stufe ist zu langsam
+ *  - Füllstand der Eingangs-Queue
+ * Der Engpass ist die Stufe mit der höchsten Auslastung (Bearbeitungszeit / (Dauer * Worker)).
+ *
+ * Vorteile:
+ *  - Speicherbedarf durch die Queue-Kapazitäten begrenzt
+ *  - IO-lastige Stufen mit vielen virtuellen Threads, CPU-Stufen mit wenigen Plattform-Threads
+ * Nachteile:
+ *  - Reihenfolge der Elemente bleibt bei Parallelität > 1 nicht erhalten
+ *  - Epochen kosten an jeder Grenze eine komplette Leerlauf-Phase ("Pipeline-Bubble")
+ */
+public class PipelineEngine<I, O> {
+
+    public enum Carrier { PLATFORM, VIRTUAL }
+
+    /*
+     * Funktion einer Stufe. Rückgabe null = Element wird herausgefiltert.
+     */
+    @FunctionalInterface
+    public interface StageFunction<A, B> {
+        B apply(A input) throws Exception;
+    }
+
+    private record StageSpec(String name, int parallelism, Carrier carrier,
+                             StageFunction<Object, Object> function) {}
+
+    // Marker laufen hinter den Daten durch die Queues
+    private static final Object EPOCH_END = new Object();
+    private static final Object END = new Object();
+
+    private final int queueCapacity;
+    private final List<StageSpec> stages;
+    private volatile StatisticsRegistry statistics = new StatisticsRegistry();
+
+    private PipelineEngine(int queueCapacity, List<StageSpec> stages) {
+        this.queueCapacity = queueCapacity;
+        this.stages = stages;
+    }
+
+    public static <I> PipelineEngine<I, I> withQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be >= 1");
+        }
+        return new PipelineEngine<>(queueCapacity, List.of());
+    }
+
+    /*
+     * Hängt eine Stufe an. Die Engine selbst ist unveränderlich.
+     */
+    @SuppressWarnings("unchecked")
+    public <N> PipelineEngine<I, N> stage(String name, int parallelism, Carrier carrier,
+                                          StageFunction<? super O, ? extends N> function) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        List<StageSpec> next = new ArrayList<>(stages);
+        next.add(new StageSpec(name, parallelism, carrier, (StageFunction<Object, Object>) function));
+        return new PipelineEngine<>(queueCapacity, List.copyOf(next));
+    }
+
+    /*
+     * Messwerte des aktuellen (oder letzten) Laufs – z.B. für ein Monitoring von außen.
+     */
+    public StatisticsRegistry statistics() {
+        return statistics;
+    }
+
+    public Report run(Iterable<? extends I> input, Consumer<? super O> sink)
+            throws InterruptedException, ExecutionException {
+        return runEpochs(List.of(input), sink, epoch -> { });
+    }
+
+    /*
+     * Verarbeitet die Epochen nacheinander im Gleichschritt.
+     * onEpochEnd läuft, nachdem alle Stufen die Epoche abgeschlossen haben
+     * (im letzten am Phaser ankommenden Thread, bevor irgendjemand weitermacht).
+     * sink wird von den Workern der letzten Stufe parallel aufgerufen.
+     */
+    public Report runEpochs(List<? extends Iterable<? extends I>> epochs, Consumer<? super O> sink,
+                            IntConsumer onEpochEnd) throws InterruptedException, ExecutionException {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("pipeline has no stages");
+        }
+        StatisticsRegistry stats = new StatisticsRegistry();
+        statistics = stats;
+
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        for (int s = 0; s < stages.size(); s++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int workers = stages.stream().mapToInt(StageSpec::parallelism).sum();
+
+        // Parteien: alle Worker + die Quelle (der aufrufende Thread)
+        Phaser phaser = new Phaser(workers + 1) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                if (failure.get() == null) {
+                    onEpochEnd.accept(phase);
+                }
+                return false;
+            }
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < stages.size(); s++) {
+            StageSpec spec = stages.get(s);
+            StageWorker worker = new StageWorker(spec, queues.get(s),
+                    s + 1 < stages.size() ? queues.get(s + 1) : null,
+                    s + 1 < stages.size() ? stages.get(s + 1).parallelism() : 0,
+                    sink, phaser, stats);
+            Thread.Builder builder = spec.carrier() == Carrier.VIRTUAL ? Thread.ofVirtual() : Thread.ofPlatform();
+            for (int w = 0; w < spec.parallelism(); w++) {
+                threads.add(builder.name(spec.name() + "-" + w).unstarted(() -> {
+                    try {
+                        worker.loop();
+                    } catch (InterruptedException e) {
+                        // Abbruch nach Fehler in einer anderen Stufe
+                    } catch (Throwable t) {
+                        if (failure.compareAndSet(null, t)) {
+                            abort(threads, phaser);
+                        }
+                    }
+                }));
+            }
+        }
+
+        long begin = System.nanoTime();
+        threads.forEach(Thread::start);
+
+        // Quelle: läuft im aufrufenden Thread, blockiert bei voller erster Queue (Backpressure)
+        BlockingQueue<Object> first = queues.get(0);
+        int firstParallelism = stages.get(0).parallelism();
+        StatisticsRegistry.StripedCounter sourceBlocked = stats.counter("source.blockedNanos");
+        try {
+            feed:
+            for (Iterable<? extends I> epoch : epochs) {
+                for (I item : epoch) {
+                    long t0 = System.nanoTime();
+                    boolean fed = feed(first, item, failure);
+                    sourceBlocked.add(System.nanoTime() - t0);
+                    if (!fed) {
+                        break feed;
+                    }
+                }
+                for (int w = 0; w < firstParallelism; w++) {
+                    if (!feed(first, EPOCH_END, failure)) {
+                        break feed;
+                    }
+                }
+                if (phaser.arriveAndAwaitAdvance() < 0) {
+                    break; // Phaser wurde nach einem Fehler beendet
+                }
+            }
+            for (int w = 0; w < firstParallelism && failure.get() == null; w++) {
+                feed(first, END, failure);
+            }
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            abort(threads, phaser);
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        if (failure.get() != null) {
+            throw new ExecutionException(failure.get());
+        }
+        return report(elapsed, stats);
+    }
+
+    // put() mit Blick auf Fehler: nach einem Abbruch nimmt niemand mehr etwas aus der Queue
+    private static boolean feed(BlockingQueue<Object> queue, Object item, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        while (!queue.offer(item, 10, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void abort(List<Thread> threads, Phaser phaser) {
+        phaser.forceTermination();
+        threads.forEach(Thread::interrupt);
+    }
+
+    // ------------------------------------------------------------
+    // Worker einer Stufe
+    // ------------------------------------------------------------
+    private static final class StageWorker {
+
+        private final StageSpec spec;
+        private final BlockingQueue<Object> in;
+        private final BlockingQueue<Object> out;         // null bei der letzten Stufe
+        private final int downstreamParallelism;
+        private final Consumer<Object> sink;
+        private final Phaser phaser;
+        // wie viele Worker dieser Stufe den aktuellen Marker noch nicht gesehen haben
+        private final AtomicInteger pendingMarkers;
+
+        private final StatisticsRegistry.StripedCounter processed;
+        private final StatisticsRegistry.StripedHistogram serviceNanos;
+        private final StatisticsRegistry.StripedCounter blockedNanos;
+        private final StatisticsRegistry.StripedCounter starvedNanos;
+        private final StatisticsRegistry.StripedHistogram queueSize;
+
+        @SuppressWarnings("unchecked")
+        StageWorker(StageSpec spec, BlockingQueue<Object> in, BlockingQueue<Object> out,
+                    int downstreamParallelism, Consumer<?> sink, Phaser phaser, StatisticsRegistry stats) {
+            this.spec = spec;
+            this.in = in;
+            this.out = out;
+            this.downstreamParallelism = downstreamParallelism;
+            this.sink = (Consumer<Object>) sink;
+            this.phaser = phaser;
+            this.pendingMarkers = new AtomicInteger(spec.parallelism());
+            String prefix = "stage." + spec.name() + ".";
+            this.processed = stats.counter(prefix + "processed");
+            this.serviceNanos = stats.histogram(prefix + "serviceNanos");
+            this.blockedNanos = stats.counter(prefix + "blockedNanos");
+            this.starvedNanos = stats.counter(prefix + "starvedNanos");
+            this.queueSize = stats.histogram(prefix + "queueSize");
+        }
+
+        void loop() throws Exception {
+            while (true) {
+                long t0 = System.nanoTime();
+                Object item = in.take();
+                starvedNanos.add(System.nanoTime() - t0);
+                queueSize.record(in.size());
+
+                if (item == END) {
+                    forwardMarker(END);
+                    return;
+                }
+                if (item == EPOCH_END) {
+                    forwardMarker(EPOCH_END);
+                    // warten, bis ALLE Stufen die Epoche abgeschlossen haben
+                    if (phaser.arriveAndAwaitAdvance() < 0) {
+                        return;
+                    }
+                    continue;
+                }
+
+                long s0 = System.nanoTime();
+                Object result = spec.function().apply(item);
+                serviceNanos.record(System.nanoTime() - s0);
+                processed.increment();
+
+                if (result == null) {
+                    continue;
+                }
+                if (out == null) {
+                    sink.accept(result);
+                } else {
+                    long p0 = System.nanoTime();
+                    out.put(result); // blockiert, wenn die nächste Stufe nicht hinterherkommt
+                    blockedNanos.add(System.nanoTime() - p0);
+                }
+            }
+        }
+
+        // Der letzte Worker, der den Marker sieht, reicht ihn an alle Worker der nächsten Stufe weiter.
+        // Alle Daten dieser Stufe liegen dann bereits vor dem Marker in der nächsten Queue.
+        private void forwardMarker(Object marker) throws InterruptedException {
+            if (pendingMarkers.decrementAndGet() != 0) {
+                return;
+            }
+            pendingMarkers.set(spec.parallelism()); // bereit für die nächste Epoche
+            if (out != null) {
+                for (int w = 0; w < downstreamParallelism; w++) {
+                    out.put(marker);
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Auswertung
+    // ------------------------------------------------------------
+    private Report report(long elapsedNanos, StatisticsRegistry stats) {
+        StatisticsRegistry.Snapshot snapshot = stats.snapshot();
+        List<StageReport> reports = new ArrayList<>();
+        for (StageSpec spec : stages) {
+            String prefix = "stage." + spec.name() + ".";
+            StatisticsRegistry.HistogramSnapshot service = snapshot.histograms().get(prefix + "serviceNanos");
+            StatisticsRegistry.HistogramSnapshot queue = snapshot.histograms().get(prefix + "queueSize");
+            long processed = snapshot.counters().get(prefix + "processed");
+            reports.add(new StageReport(spec.name(), spec.parallelism(), spec.carrier(), processed,
+                    processed * 1e9 / elapsedNanos,
+                    service.mean() / 1_000.0,
+                    (double) service.sum() / ((double) elapsedNanos * spec.parallelism()),
+                    snapshot.counters().get(prefix + "blockedNanos") / 1_000_000,
+                    snapshot.counters().get(prefix + "starvedNanos") / 1_000_000,
+                    queue.mean(),
+                    // Histogramm-Buckets sind Zweierpotenzen: die Obergrenze (z.B. 511) kann über
+                    // der Kapazität liegen, die Queue aber nie -> auf die Kapazität begrenzen
+                    Math.min(queue.percentileUpperBound(99), queueCapacity), queueCapacity));
+        }
+        return new Report(elapsedNanos / 1_000_000,
+                snapshot.counters().get("source.blockedNanos") / 1_000_000, reports);
+    }
+
+    public record StageReport(String name, int parallelism, Carrier carrier, long processed,
+                              double itemsPerSecond, double meanServiceMicros, double utilization,
+                              long blockedMillis, long starvedMillis,
+                              double meanQueueSize, long p99QueueSizeUpperBound, int queueCapacity) {}
+
+    public record Report(long elapsedMillis, long sourceBlockedMillis, List<StageReport> stages) {
+
+        // Stufe mit der höchsten Auslastung pro Worker
+        public StageReport bottleneck() {
+            StageReport max = stages.get(0);
+            for (StageReport s : stages) {
+                if (s.utilization() > max.utilization()) {
+                    max = s;
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Dauer %d ms, Quelle blockiert %d ms%n", elapsedMillis, sourceBlockedMillis));
+            sb.append(String.format("%-10s %8s %9s %10s %12s %7s %10s %10s %12s%n",
+                    "Stufe", "Worker", "Elemente", "Elem/s", "Bearb. (µs)", "Ausl.",
+                    "blockiert", "hungrig", "Queue ø/p99<="));
+            for (StageReport s : stages) {
+                sb.append(String.format("%-10s %3d %-4s %9d %10.0f %12.1f %6.0f%% %8d ms %7d ms %5.1f/%d (%d)%n",
+                        s.name(), s.parallelism(), s.carrier() == Carrier.VIRTUAL ? "VT" : "PT",
+                        s.processed(), s.itemsPerSecond(), s.meanServiceMicros(), s.utilization() * 100,
+                        s.blockedMillis(), s.starvedMillis(), s.meanQueueSize(), s.p99QueueSizeUpperBound(),
+                        s.queueCapacity()));
+            }
+            sb.append("Engpass: ").append(bottleneck().name());
+            return sb.toString();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Demo: nächtlicher Batch in 3 Epochen ("Tagen")
+    //  parse  – CPU, 2 Plattform-Threads
+    //  enrich – IO (2 ms), 64 virtuelle Threads
+    //  write  – 1 Plattform-Thread, ~0,3 ms pro Satz -> Engpass
+    // ------------------------------------------------------------
+    public static void main(String[] args) throws Exception {
+        PipelineEngine<String, String> pipeline = PipelineEngine.<String>withQueueCapacity(256)
+                .stage("parse", 2, Carrier.PLATFORM, Integer::parseInt)
+                .stage("enrich", 64, Carrier.VIRTUAL, (Integer id) -> {
+                    Thread.sleep(2); // simuliert Remote-Aufruf
+                    return id % 10 == 0 ? null : "Kunde-" + id; // jeden zehnten herausfiltern
+                })
+                .stage("write", 1, Carrier.PLATFORM, (String line) -> {
+                    LockSupport.parkNanos(300_000); // simuliert Schreiben in die Datenbank
+                    return line;
+                });
+
+        List<List<String>> days = IntStream.range(0, 3)
+                .mapToObj(day -> IntStream.range(day * 2_000, (day + 1) * 2_000).mapToObj(String::valueOf).toList())
+                .toList();
+
+        AtomicInteger written = new AtomicInteger();
+        Report report = pipeline.runEpochs(days, line -> written.incrementAndGet(),
+                epoch -> System.out.println("Epoche " + epoch + " abgeschlossen, geschrieben: " + written.get()));
+
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,225 @@
+package main;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Registry für benannte Counter, Gauges und Histogramme.
+ *
+ * Idee (wie LongAdder):
+ *  - Statt EINES gemeinsamen Feldes (static int / AtomicInteger) gibt es
+ *    mehrere "Zellen" (Stripes), etwa eine pro Kern.
+ *  - Jeder Thread schreibt in "seine" Zelle -> kaum Contention.
+ *  - Die Zellen liegen 128 Byte auseinander, damit sie nicht auf derselben
+ *    Cache-Line landen (False Sharing).
+ *  - Lesen = Summe über alle Zellen. Das blockiert keinen Schreiber,
+ *    ist aber nur ein "ungefährer" Schnappschuss (kein atomarer Gesamtwert).
+ *
+ * Vorteile:
+ *  - Inkrement ist lockfrei und allokationsfrei
+ *  - skaliert mit der Anzahl Kerne
+ * Nachteile:
+ *  - mehr Speicher pro Counter
+ *  - Lesen kostet O(Anzahl Stripes)
+ */
+public class StatisticsRegistry {
+
+    // 16 longs * 8 Byte = 128 Byte Abstand (deckt auch Adjacent-Line-Prefetch ab)
+    static final int PADDING = 16;
+
+    static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+    private final Map<String, StripedCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, StripedHistogram> histograms = new ConcurrentHashMap<>();
+
+    public StripedCounter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new StripedCounter());
+    }
+
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, n -> new Gauge());
+    }
+
+    public StripedHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new StripedHistogram());
+    }
+
+    /*
+     * Schnappschuss aller Werte. Schreiber laufen währenddessen ungehindert weiter.
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, c) -> counterValues.put(name, c.sum()));
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, g) -> gaugeValues.put(name, g.get()));
+
+        Map<String, HistogramSnapshot> histogramValues = new TreeMap<>();
+        histograms.forEach((name, h) -> histogramValues.put(name, h.snapshot()));
+
+        return new Snapshot(counterValues, gaugeValues, histogramValues);
+    }
+
+    public record Snapshot(Map<String, Long> counters,
+                           Map<String, Long> gauges,
+                           Map<String, HistogramSnapshot> histograms) {}
+
+    // Stripe-Index des aktuellen Threads. Thread-IDs sind fortlaufend,
+    // die Mischfunktion verteilt auch benachbarte IDs gleichmäßig.
+    static int stripeIndex() {
+        long id = Thread.currentThread().threadId();
+        id ^= (id >>> 33);
+        id *= 0xff51afd7ed558ccdL;
+        id ^= (id >>> 33);
+        return (int) id & (STRIPES - 1);
+    }
+
+    // ------------------------------------------------------------
+    // Counter: nur steigende Werte (Requests, Fehler, ...)
+    // ------------------------------------------------------------
+    public static final class StripedCounter {
+
+        // Index 0..PADDING-1 bleibt frei: Abstand zum Array-Header
+        private final AtomicLongArray cells = new AtomicLongArray((STRIPES + 1) * PADDING);
+
+        public void increment() {
+            add(1);
+        }
+
+        public void add(long delta) {
+            // getAndAdd ist ein einzelnes LOCK XADD – keine CAS-Schleife
+            cells.getAndAdd((stripeIndex() + 1) * PADDING, delta);
+        }
+
+        public long sum() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.get((i + 1) * PADDING);
+            }
+            return sum;
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Gauge: aktueller Wert (Queue-Länge, offene Verbindungen, ...)
+    // Wird typischerweise selten geschrieben -> kein Striping nötig.
+    // ------------------------------------------------------------
+    public static final class Gauge {
+
+        private final AtomicLong value = new AtomicLong();
+
+        public void set(long newValue) {
+            value.set(newValue);
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    // ------------------------------------------------------------
+    // Histogramm mit Zweierpotenz-Buckets: Bucket i zählt Werte < 2^i
+    // Jede Stripe hat ihre eigenen Buckets, gepolstert gegen False Sharing.
+    // ------------------------------------------------------------
+    public static final class StripedHistogram {
+
+        static final int BUCKETS = 64;
+        // Buckets + Summe + Padding
+        private static final int STRIDE = BUCKETS + 1 + PADDING;
+
+        private final AtomicLongArray cells = new AtomicLongArray(PADDING + STRIPES * STRIDE);
+
+        public void record(long value) {
+            long v = Math.max(0, value);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v));
+            int base = PADDING + stripeIndex() * STRIDE;
+            cells.getAndIncrement(base + bucket);
+            cells.getAndAdd(base + BUCKETS, v);
+        }
+
+        public HistogramSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            long sum = 0;
+            for (int s = 0; s < STRIPES; s++) {
+                int base = PADDING + s * STRIDE;
+                for (int b = 0; b < BUCKETS; b++) {
+                    counts[b] += cells.get(base + b);
+                }
+                sum += cells.get(base + BUCKETS);
+            }
+            return new HistogramSnapshot(counts, sum);
+        }
+    }
+
+    public record HistogramSnapshot(long[] bucketCounts, long sum) {
+
+        public long count() {
+            long count = 0;
+            for (long c : bucketCounts) {
+                count += c;
+            }
+            return count;
+        }
+
+        public double mean() {
+            long count = count();
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Obergrenze des Buckets, in dem das Perzentil liegt (Genauigkeit: Faktor 2)
+        public long percentileUpperBound(double percentile) {
+            long target = (long) Math.ceil(count() * percentile / 100.0);
+            long seen = 0;
+            for (int b = 0; b < bucketCounts.length; b++) {
+                seen += bucketCounts[b];
+                if (seen >= target && seen > 0) {
+                    return b == 0 ? 0 : (1L << b) - 1;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count() + ", mean=" + String.format("%.1f", mean())
+                    + ", p50<=" + percentileUpperBound(50) + ", p99<=" + percentileUpperBound(99);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StatisticsRegistry registry = new StatisticsRegistry();
+        StripedCounter requests = registry.counter("requests");
+        StripedHistogram latency = registry.histogram("latencyNanos");
+        Gauge active = registry.gauge("activeThreads");
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = Thread.ofVirtual().start(() -> {
+                active.add(1);
+                for (int j = 0; j < 100_000; j++) {
+                    long t0 = System.nanoTime();
+                    requests.increment();
+                    latency.record(System.nanoTime() - t0);
+                }
+                active.add(-1);
+            });
+        }
+
+        // Schnappschuss WÄHREND geschrieben wird – blockiert niemanden
+        System.out.println("Zwischenstand: " + registry.snapshot());
+
+        for (Thread t : threads) {
+            t.join();
+        }
+        System.out.println("Endstand:      " + registry.snapshot());
+    }
+}